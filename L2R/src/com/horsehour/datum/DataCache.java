@@ -0,0 +1,198 @@
+package com.horsehour.datum;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * DataCacheԶƸʽʽ洢ݼ,ٴμʱֱڴӳ,ı
+ * <p>ļʽ(Сֽ):</p>
+ * <ul>
+ * <li>ͷ64ֽ:magicversionԪֽ(48)dim
+ * ļĳ޸ʱ䡢ݿʼλákeyֽ</li>
+ * <li>key:ɻʱʹõĽ,UTF-8ֽ</li>
+ * <li>offsets:int[nQuery + 1]</li>
+ * <li>labels:int[nSample]</li>
+ * <li>qids:ÿһintȼUTF-8ֽ</li>
+ * <li>ݿ:floatdouble[nSample * dim],ʼλð8ֽڶ</li>
+ * </ul>
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140325
+ */
+public class DataCache {
+	public static final int MAGIC = 0x4C325243;//"L2RC"
+	public static final int VERSION = 2;
+
+	private static final int HEADER_SIZE = 64;
+	private static final int BUF_SIZE = 1 << 20;
+
+	/**
+	 * ݿд뻺ļ,дʱļ,̲ļ
+	 * @param matrix
+	 * @param dest ļ
+	 * @param src ļ,жϻǷ
+	 * @param single Ƿfloat
+	 * @param key ļķʽ(),ʱһ򻺴ʧЧ
+	 * @throws IOException
+	 */
+	public static void write(DataMatrix matrix, String dest, File src, boolean single, String key)
+			throws IOException {
+		int dim = matrix.getDim();
+		int nSample = matrix.getNumSample();
+		int nQuery = matrix.getNumQuery();
+		int width = single ? 4 : 8;
+
+		byte[] keyBytes = key.getBytes("UTF-8");
+		long metaPos = HEADER_SIZE + keyBytes.length;
+		byte[][] qids = new byte[nQuery][];
+		long pos = metaPos + 4L * (nQuery + 1) + 4L * nSample;
+		for(int q = 0; q < nQuery; q++){
+			qids[q] = matrix.getQueryId(q).getBytes("UTF-8");
+			pos += 4 + qids[q].length;
+		}
+		long featurePos = (pos + 7) & ~7L;
+
+		File destFile = new File(dest).getAbsoluteFile();
+		File tmp = File.createTempFile(destFile.getName(), ".tmp", destFile.getParentFile());
+		RandomAccessFile raf = new RandomAccessFile(tmp, "rw");
+		FileChannel channel = raf.getChannel();
+		try {
+			ByteBuffer buf = ByteBuffer.allocate(BUF_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			buf.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(dim);
+			buf.putInt(nQuery).putInt(nSample);
+			buf.putLong(src.length()).putLong(src.lastModified()).putLong(featurePos);
+			buf.putInt(keyBytes.length);
+			buf.position(HEADER_SIZE);
+			flush(channel, buf, keyBytes.length).put(keyBytes);
+
+			int[] offsets = matrix.getOffsets();
+			for(int q = 0; q <= nQuery; q++)
+				flush(channel, buf, 4).putInt(offsets[q]);
+
+			int[] labels = matrix.getLabels();
+			for(int i = 0; i < nSample; i++)
+				flush(channel, buf, 4).putInt(labels[i]);
+
+			for(int q = 0; q < nQuery; q++)
+				flush(channel, buf, 4 + qids[q].length).putInt(qids[q].length).put(qids[q]);
+
+			flush(channel, buf, 8);
+			for(; pos < featurePos; pos++)
+				buf.put((byte) 0);
+
+			double[] features = matrix.getFeatureBlock();
+			FeatureBlock block = matrix.getBlock();
+			int len = nSample * dim;
+			for(int i = 0; i < len; i++){
+				double val = (features == null) ? block.get(i) : features[i];
+				if(single)
+					flush(channel, buf, 4).putFloat((float) val);
+				else
+					flush(channel, buf, 8).putDouble(val);
+			}
+			flush(channel, buf, BUF_SIZE);
+		} finally {
+			channel.close();
+			raf.close();
+		}
+
+		if(destFile.exists() && !destFile.delete() || !tmp.renameTo(destFile)){
+			tmp.delete();
+			throw new IOException("Failed to create " + dest);
+		}
+	}
+
+	/**
+	 * ʣռ䲻nֽʱд
+	 * @param channel
+	 * @param buf
+	 * @param n
+	 * @return buf
+	 * @throws IOException
+	 */
+	private static ByteBuffer flush(FileChannel channel, ByteBuffer buf, int n) throws IOException {
+		if(buf.remaining() >= n)
+			return buf;
+
+		buf.flip();
+		while(buf.hasRemaining())
+			channel.write(buf);
+		buf.clear();
+		return buf;
+	}
+
+	/**
+	 * ڴӳ仺ļ,ݿ鲻Ƶڴ
+	 * @param cache ļ
+	 * @param src ļ,뻺¼ĳȻ޸ʱ䲻һʱʧЧ
+	 * @param key ļķʽ,дʱһʱʧЧ
+	 * @return matrix,治ڡʽʱnull
+	 * @throws IOException
+	 */
+	public static DataMatrix load(String cache, File src, String key) throws IOException {
+		File file = new File(cache);
+		if(!file.isFile() || file.length() < HEADER_SIZE)
+			return null;
+
+		boolean writable = file.canWrite();//дʱӳҪԶдʽļ
+		RandomAccessFile raf = new RandomAccessFile(file, writable ? "rw" : "r");
+		FileChannel channel = raf.getChannel();
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			while(header.hasRemaining() && channel.read(header) >= 0);
+			header.flip();
+
+			if(header.getInt() != MAGIC || header.getInt() != VERSION)
+				return null;
+
+			int width = header.getInt();
+			int dim = header.getInt();
+			int nQuery = header.getInt();
+			int nSample = header.getInt();
+			long length = header.getLong();
+			long modified = header.getLong();
+			long featurePos = header.getLong();
+			int keyLen = header.getInt();
+
+			if(src != null && src.exists() && (src.length() != length || src.lastModified() != modified))
+				return null;
+			if(keyLen < 0 || channel.size() < featurePos + (long) nSample * dim * width)
+				return null;
+
+			ByteBuffer keyBuf = ByteBuffer.allocate(keyLen);
+			while(keyBuf.hasRemaining() && channel.read(keyBuf) >= 0);
+			if(!key.equals(new String(keyBuf.array(), "UTF-8")))
+				return null;
+
+			long metaPos = HEADER_SIZE + keyLen;
+			ByteBuffer meta = channel.map(MapMode.READ_ONLY, metaPos, featurePos - metaPos)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			IntBuffer ints = meta.asIntBuffer();
+			int[] offsets = new int[nQuery + 1];
+			int[] labels = new int[nSample];
+			ints.get(offsets);
+			ints.get(labels);
+
+			meta.position(4 * (nQuery + 1 + nSample));
+			String[] qids = new String[nQuery];
+			for(int q = 0; q < nQuery; q++){
+				byte[] bytes = new byte[meta.getInt()];
+				meta.get(bytes);
+				qids[q] = new String(bytes, "UTF-8");
+			}
+
+			FeatureBlock block = new MappedFeatureBlock(channel, featurePos, nSample * dim, width,
+					writable ? MapMode.PRIVATE : MapMode.READ_ONLY);
+			return new DataMatrix(dim, block, labels, offsets, qids);
+		} finally {
+			channel.close();
+			raf.close();
+		}
+	}
+}
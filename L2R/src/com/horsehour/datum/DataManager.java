@@ -1,18 +1,31 @@
 package com.horsehour.datum;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import com.horsehour.datum.norm.FeatureStats;
+import com.horsehour.filter.L2RByteParser;
 import com.horsehour.filter.LineParserFilter;
 import com.horsehour.function.ActivationFunction;
 import com.horsehour.math.MathLib;
@@ -30,28 +43,25 @@ public class DataManager {
 	 * @param dataset
 	 */
 	public static void preprocess(DataSet dataset){
-		for(int idx = 0; idx < dataset.size(); idx++){
-			SampleSet sampleset = dataset.getSampleSet(idx);
-			float average = 0;
-			List<Integer> labels = sampleset.getLabelList();
-			for(float label : labels)
-				average += label;
-			
-			average /= sampleset.size();
-			
-			boolean tie = true;
-			for(int label : labels){
-				if(label != average){
-					tie = false;
-					break;
-				}
-			}
-			
-			if(tie){
-				dataset.removeSampleSet(idx);
-				idx--;
-			}
-		}
+		List<SampleSet> kept = new ArrayList<SampleSet>(dataset.size());
+		for(SampleSet sampleset : dataset.getSampleSets())
+			if(!isTied(sampleset))
+				kept.add(sampleset);
+
+		if(kept.size() < dataset.size())
+			dataset.setSampleSets(kept);
+	}
+
+	/**
+	 * @param sampleset
+	 * @return ȫlabelǷͬ
+	 */
+	static boolean isTied(SampleSet sampleset){
+		int sz = sampleset.size();
+		for(int i = 1; i < sz; i++)
+			if(sampleset.getLabel(i) != sampleset.getLabel(0))
+				return false;
+		return true;
 	}
 
 	/**
@@ -63,40 +73,54 @@ public class DataManager {
 		SampleSet sampleSet;
 		for(int qid = 0; qid < dataset.size(); qid++){
 			sampleSet = dataset.getSampleSet(qid);
-			for(int i = 0; i < sampleSet.size(); i++)
-				sampleSet.getSample(i).addFeature(newFeature[qid][i]);
+			double[] features = new double[sampleSet.size()];
+			for(int i = 0; i < features.length; i++)
+				features[i] = newFeature[qid][i];
+			sampleSet.addFeatures(features);
+		}
+		dataset.resetMatrix();
+		dataset.addDim(1);
+	}
+
+	/**
+	 * ָ±ݼ,ʽ洢ݼתΪʽ洢
+	 * @param dataset
+	 * @param precision
+	 * @return columnar dataset of given precision
+	 */
+	public static DataSet toPrecision(DataSet dataset, FeaturePrecision precision){
+		DataMatrix matrix = dataset.getMatrix();
+		if(matrix == null){
+			matrix = new DataMatrix(dataset.getDim(), dataset.getNumTotalSample());
+			for(SampleSet sampleset : dataset.getSampleSets())
+				for(Sample sample : sampleset.getSamples())
+					matrix.addSample(sample);
 		}
+
+		DataMatrix target = matrix.toPrecision(precision);
+		if(target == dataset.getMatrix())
+			return dataset;
+		return new DataSet(target);
 	}
 
 	/**
-	 * ݼвݼ
+	 * ݼвݼ,ݼԭݼϵͼ,
 	 * @param dataset
 	 * @param fids
 	 * @return new data set based on fids
 	 */
 	public static DataSet retrievalData(DataSet dataset, int[] fids){
-		SampleSet sampleset;
-		for(int i = 0; i < dataset.size(); i++){
-			sampleset = dataset.getSampleSet(i);
-			sampleset = retrievalSample(sampleset, fids);
-		}
-		return dataset;
+		return dataset.project(fids);
 	}
 
 	/**
-	 * ݼвݼ
+	 * в,ԭϵͼ,
 	 * @param sampleset
 	 * @param fids
 	 * @return new sample set based on fids
 	 */
 	public static SampleSet retrievalSample(SampleSet sampleset, int[] fids){
-		Sample sample;
-		for(int i = 0; i < sampleset.size(); i++){
-			sample = sampleset.getSample(i);
-			for(int j = 0; j < fids.length; j++)
-				sample = new Sample(sample, fids);
-		}
-		return sampleset;
+		return sampleset.project(fids);
 	}
 
 	/**
@@ -115,6 +139,7 @@ public class DataManager {
 				label += MathLib.randUniform(-0.01f, 0.01f);
 				sampleSet.getSample(sid).setLabel(label);
 			}
+			sampleSet.resetLabelStats();
 		}
 	}
 	
@@ -148,7 +173,24 @@ public class DataManager {
 	 * @return dataset
 	 */
 	public static DataSet loadDataSet(String src, String enc, LineParserFilter lineParser){
-		BufferedReader br;
+		return loadDataSet(src, enc, lineParser, null);
+	}
+
+	/**
+	 * ݼͬʱۼȫͳ,Ϊ׼ٱһ
+	 * @param src
+	 * @param enc
+	 * @param lineParser
+	 * @param stats ۼȫͳ,Ϊnullʱۼ
+	 * @return dataset
+	 */
+	public static DataSet loadDataSet(String src, String enc, LineParserFilter lineParser,
+			FeatureStats stats){
+		if(lineParser instanceof L2RByteParser)
+			return loadDataSet(src, (L2RByteParser) lineParser,
+					Runtime.getRuntime().availableProcessors(), stats);
+
+		BufferedReader br = null;
 		int dim = 0, totalNum = 0;
 		List<SampleSet> samplesets = new ArrayList<SampleSet>();
 		
@@ -157,9 +199,11 @@ public class DataManager {
 		String line = "";
 		String qid = "";
 		try {
-			br = new BufferedReader(new InputStreamReader(new FileInputStream(src),enc));
+			br = new BufferedReader(new InputStreamReader(FileManager.openInput(src),enc));
 			while((line = br.readLine()) != null){
 				sample = (Sample) lineParser.parse(line.trim());//ʹlineParser
+				if(stats != null)
+					stats.add(sample);
 				if(qid.equals(sample.getQid())){
 					sampleset = samplesets.get(samplesets.size() - 1);
 					sampleset.addSample(sample);
@@ -172,14 +216,14 @@ public class DataManager {
 				totalNum++;
 			}
 			dim = sample.getDim();//Assume the data set is consistent
-			br.close();
-			
 		} catch (FileNotFoundException e) {
 			e.printStackTrace();
 			return null;
 		} catch (IOException e) {
 			e.printStackTrace();
 			return null;
+		} finally {
+			close(br);
 		}
 		
 		return new DataSet(samplesets, dim, totalNum);
@@ -188,6 +232,471 @@ public class DataManager {
 	public static DataSet loadDataSet(String src, LineParserFilter lineParser){
 		return loadDataSet(src, "utf-8", lineParser);
 	}
+
+	public static DataSet loadDataSet(String src, LineParserFilter lineParser, FeatureStats stats){
+		return loadDataSet(src, "utf-8", lineParser, stats);
+	}
+
+	/**
+	 * ֱֽϽļ,Ϊʽ洢DataSet
+	 * @param src
+	 * @param parser
+	 * @return columnar dataset
+	 */
+	public static DataSet loadDataSet(String src, L2RByteParser parser){
+		return loadDataSet(src, parser, Runtime.getRuntime().availableProcessors(), null);
+	}
+
+	/**
+	 * gzipļں̨߳нѹ,ͬʱ
+	 * @param src
+	 * @param parser
+	 * @param nThread ѹֿgzipļ߳
+	 * @param stats ʱۼƵͳ,Ϊnull
+	 * @return columnar dataset
+	 */
+	private static DataSet loadDataSet(String src, L2RByteParser parser, int nThread,
+			FeatureStats stats){
+		DataMatrix matrix = null;
+		ReadableByteChannel channel = null;
+		try {
+			if(FileManager.isGzip(src)){
+				channel = Channels.newChannel(FileManager.openInput(src, nThread));
+				matrix = parse(channel, 0, parser, stats);
+			}else{
+				FileChannel fc = new FileInputStream(src).getChannel();
+				channel = fc;
+				matrix = parseRange(fc, 0, fc.size(), parser, stats);
+			}
+		} catch (FileNotFoundException e) {
+			e.printStackTrace();
+			return null;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		} finally {
+			close(channel);
+		}
+
+		if(matrix == null)
+			return new DataSet();
+
+		matrix.trimToSize();
+		return new DataSet(matrix);
+	}
+
+	/**
+	 * ̲߳мļ:ʱ߽罫ļָΪֽ,ƴ,
+	 * 뵥̼߳صݼһ
+	 * @param src
+	 * @param nThread
+	 * @return columnar dataset
+	 */
+	public static DataSet loadDataSet(String src, int nThread){
+		return loadDataSet(src, nThread, null);
+	}
+
+	/**
+	 * ̲߳мļ,ʱֱۼͳ,ϲ
+	 * @param src
+	 * @param nThread
+	 * @param stats ۼȫͳ,Ϊnullʱۼ
+	 * @return columnar dataset
+	 */
+	public static DataSet loadDataSet(String src, int nThread, FeatureStats stats){
+		FileChannel channel = null;
+		ExecutorService pool = null;
+		List<DataMatrix> parts = new ArrayList<DataMatrix>();
+		List<RangeParser> parsers = new ArrayList<RangeParser>();
+		try {
+			if(FileManager.isGzip(src))//ѹļ޷ָֽ,߳ڽѹ
+				return loadDataSet(src, new L2RByteParser(), nThread, stats);
+
+			channel = new FileInputStream(src).getChannel();
+			int m = (int) Math.min(nThread * 4, channel.size() / BUF_SIZE + 1);//ÿ䲻Сڻ
+			long[] bound = splitQuery(channel, m);
+
+			pool = Executors.newFixedThreadPool(nThread);
+			List<Future<DataMatrix>> futures = new ArrayList<Future<DataMatrix>>();
+			for(int i = 0; i < bound.length - 1; i++){
+				RangeParser parser = new RangeParser(channel, bound[i], bound[i + 1], stats != null);
+				parsers.add(parser);
+				futures.add(pool.submit(parser));
+			}
+
+			for(Future<DataMatrix> future : futures){
+				DataMatrix part = future.get();
+				if(part != null)
+					parts.add(part);
+			}
+		} catch (FileNotFoundException e) {
+			e.printStackTrace();
+			return null;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+			return null;
+		} catch (ExecutionException e) {
+			e.printStackTrace();
+			return null;
+		} finally {
+			if(pool != null)
+				pool.shutdown();
+			close(channel);
+		}
+
+		if(stats != null)
+			for(RangeParser parser : parsers)
+				stats.merge(parser.stats);
+
+		if(parts.isEmpty())
+			return new DataSet();
+
+		return new DataSet(DataMatrix.concat(parts));
+	}
+
+	/**
+	 * ļеһֽ
+	 */
+	private static class RangeParser implements Callable<DataMatrix>{
+		private FileChannel channel;
+		private long from, to;
+		private FeatureStats stats;//ͳ
+
+		public RangeParser(FileChannel channel, long from, long to, boolean collect){
+			this.channel = channel;
+			this.from = from;
+			this.to = to;
+			if(collect)
+				stats = new FeatureStats();
+		}
+
+		@Override
+		public DataMatrix call() throws IOException {
+			DataMatrix matrix = parseRange(channel, from, to, new L2RByteParser(), stats);
+			if(matrix != null)
+				matrix.trimToSize();
+			return matrix;
+		}
+	}
+
+	/**
+	 * ļƾΪmֽ,߽뵽ʵ
+	 * @param channel
+	 * @param m
+	 * @return m + 1߽
+	 * @throws IOException
+	 */
+	private static long[] splitQuery(FileChannel channel, int m) throws IOException {
+		long size = channel.size();
+		long[] bound = new long[m + 1];
+		bound[m] = size;
+		for(int i = 1; i < m; i++){
+			bound[i] = alignQuery(channel, size * i / m);
+			if(bound[i] < bound[i - 1])
+				bound[i] = bound[i - 1];
+		}
+		return bound;
+	}
+
+	/**
+	 * @param channel
+	 * @param pos
+	 * @return pos֮׸¼ʵʼλ
+	 * @throws IOException
+	 */
+	private static long alignQuery(FileChannel channel, long pos) throws IOException {
+		long size = channel.size();
+		if(pos <= 0)
+			return 0;
+
+		byte[] buf = new byte[1 << 16];
+		ByteBuffer bb = ByteBuffer.wrap(buf);
+
+		long base = pos - 1;//posǰһֽڿʼһз,posǡΪʱ
+		int len = 0, start = -1;
+		String qid = null;
+		while(base + len < size){
+			if(len == buf.length){
+				buf = Arrays.copyOf(buf, 2 * buf.length);
+				bb = ByteBuffer.wrap(buf);
+			}
+			bb.clear();
+			bb.position(len);
+			int n = channel.read(bb, base + len);
+			if(n <= 0)
+				break;
+			len += n;
+
+			int from = 0;
+			if(start == -1){
+				while(from < len && buf[from] != '\n')
+					from++;
+				if(from == len)
+					continue;
+				start = ++from;
+			}
+
+			for(int i = from; i < len; i++){
+				if(buf[i] != '\n')
+					continue;
+
+				String current = L2RByteParser.extractQid(buf, from, i);
+				if(current != null){
+					if(qid == null)
+						qid = current;
+					else if(!qid.equals(current))
+						return base + from;
+				}
+				from = i + 1;
+			}
+
+			if(from > 0){//Ѽ
+				System.arraycopy(buf, from, buf, 0, len - from);
+				len -= from;
+				base += from;
+			}
+		}
+
+		if(qid != null && base + len == size && len > 0){//һûлз
+			String current = L2RByteParser.extractQid(buf, 0, len);
+			if(current != null && !qid.equals(current))
+				return base;
+		}
+		return size;
+	}
+
+	/**
+	 * ļ[from, to)ֽڵȫ,λ
+	 * @param channel
+	 * @param from
+	 * @param to
+	 * @param parser
+	 * @param stats
+	 * @return ݿ,ûʱnull
+	 * @throws IOException
+	 */
+	private static DataMatrix parseRange(FileChannel channel, long from, long to,
+			L2RByteParser parser, FeatureStats stats) throws IOException {
+		return parse(new RangeChannel(channel, from, to), from, parser, stats);
+	}
+
+	/**
+	 * ˳ȡȫ
+	 * @param in
+	 * @param origin ֽеλ,ڱ
+	 * @param parser
+	 * @param stats ۼͳ,Ϊnull
+	 * @return ݿ,ûʱnull
+	 * @throws IOException ȡʧܻݸʽ
+	 */
+	private static DataMatrix parse(ReadableByteChannel in, long origin, L2RByteParser parser,
+			FeatureStats stats) throws IOException {
+		DataMatrix matrix = null;
+		byte[] buf = new byte[BUF_SIZE];
+		ByteBuffer bb = ByteBuffer.wrap(buf);
+		long base = origin;//buf[0]еλ
+		int len = 0, start, scan = 0;
+		boolean eof = false;
+		while(!eof){
+			int n = in.read(bb);
+			eof = (n < 0);
+			len = bb.position();
+
+			start = 0;
+			for(int i = scan; i < len; i++){
+				if(buf[i] == '\n'){
+					matrix = parseLine(parser, buf, start, i, matrix, base, stats);
+					start = i + 1;
+				}
+			}
+			if(eof && start < len){//һûлз
+				matrix = parseLine(parser, buf, start, len, matrix, base, stats);
+				start = len;
+			}
+
+			base += start;
+			len -= start;//δͷ
+			System.arraycopy(buf, start, buf, 0, len);
+			if(len == buf.length){//һݳС
+				buf = Arrays.copyOf(buf, 2 * buf.length);
+				bb = ByteBuffer.wrap(buf);
+			}
+			bb.clear();
+			bb.position(len);
+			scan = len;
+		}
+		return matrix;
+	}
+
+	/**
+	 * ļ[from, to)ֽϵ˳ȡͨ,ʹþλöȡ,Թͬһļͨ
+	 */
+	private static class RangeChannel implements ReadableByteChannel{
+		private final FileChannel channel;
+		private long pos;
+		private final long to;
+
+		RangeChannel(FileChannel channel, long from, long to){
+			this.channel = channel;
+			this.pos = from;
+			this.to = to;
+		}
+
+		@Override
+		public int read(ByteBuffer bb) throws IOException{
+			if(pos >= to)
+				return -1;
+			int limit = bb.limit();
+			if(bb.remaining() > to - pos)
+				bb.limit(bb.position() + (int) (to - pos));
+			int n = channel.read(bb, pos);
+			bb.limit(limit);
+			if(n > 0)
+				pos += n;
+			return n;
+		}
+
+		@Override
+		public boolean isOpen(){
+			return channel.isOpen();
+		}
+
+		@Override
+		public void close(){}
+	}
+
+	private static final int BUF_SIZE = 1 << 20;
+
+	/**
+	 * һֽ,׷ӵݿ
+	 * @param parser
+	 * @param buf
+	 * @param from
+	 * @param to
+	 * @param matrix
+	 * @param base buf[0]еλ
+	 * @param stats
+	 * @return matrix,ʱ½
+	 * @throws IOException ݸʽ
+	 */
+	private static DataMatrix parseLine(L2RByteParser parser, byte[] buf, int from, int to,
+			DataMatrix matrix, long base, FeatureStats stats) throws IOException {
+		try {
+			if(!parser.parse(buf, from, to))
+				return matrix;
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Line at byte " + (base + from) + ": " + e.getMessage(), e);
+		}
+
+		if(matrix == null)
+			matrix = new DataMatrix(parser.getDim());//Assume the data set is consistent
+		matrix.addSample(parser.getFeatures(), parser.getDim(), parser.getLabel(), parser.getQid());
+		if(stats != null)
+			stats.add(parser.getFeatures(), parser.getLineDim());
+		return matrix;
+	}
+
+	private static void close(Closeable stream){
+		if(stream == null)
+			return;
+		try {
+			stream.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	public static final String CACHE_SUFFIX = ".bin";
+
+	/**
+	 * ݼ,״μʱļ,дƻļsrc.bin;
+	 * ٴμʱֱڴӳ仺ļ,ļ޸Ļ󻺴ԶʧЧ
+	 * @param src
+	 * @param enc
+	 * @param lineParser
+	 * @return columnar dataset
+	 */
+	public static DataSet loadCachedDataSet(String src, String enc, LineParserFilter lineParser){
+		String cache = src + CACHE_SUFFIX;
+		String key = lineParser.name() + "/" + enc;
+		File file = new File(src);
+		try {
+			DataMatrix matrix = DataCache.load(cache, file, key);
+			if(matrix != null)
+				return new DataSet(matrix);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		DataSet dataset;
+		if(lineParser instanceof L2RByteParser)
+			dataset = loadDataSet(src, (L2RByteParser) lineParser);
+		else
+			dataset = loadColumnarDataSet(src, enc, lineParser);
+
+		if(dataset == null || dataset.getMatrix() == null)
+			return dataset;
+
+		try {
+			DataCache.write(dataset.getMatrix(), cache, file, false, key);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return dataset;
+	}
+
+	public static DataSet loadCachedDataSet(String src, LineParserFilter lineParser){
+		return loadCachedDataSet(src, "utf-8", lineParser);
+	}
+
+	public static DataSet loadCachedDataSet(String src){
+		return loadCachedDataSet(src, "utf-8", new L2RByteParser());
+	}
+
+	/**
+	 * ļмʽ洢DataSet,ȫݿ
+	 * @param src
+	 * @param enc
+	 * @param lineParser
+	 * @return columnar dataset
+	 */
+	public static DataSet loadColumnarDataSet(String src, String enc, LineParserFilter lineParser){
+		BufferedReader br = null;
+		DataMatrix matrix = null;
+
+		Sample sample;
+		String line = "";
+		try {
+			br = new BufferedReader(new InputStreamReader(FileManager.openInput(src),enc));
+			while((line = br.readLine()) != null){
+				sample = (Sample) lineParser.parse(line.trim());
+				if(matrix == null)
+					matrix = new DataMatrix(sample.getDim());//Assume the data set is consistent
+				matrix.addSample(sample);
+			}
+		} catch (FileNotFoundException e) {
+			e.printStackTrace();
+			return null;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		} finally {
+			close(br);
+		}
+
+		if(matrix == null)
+			return new DataSet();
+
+		matrix.trimToSize();
+		return new DataSet(matrix);
+	}
+
+	public static DataSet loadColumnarDataSet(String src, LineParserFilter lineParser){
+		return loadColumnarDataSet(src, "utf-8", lineParser);
+	}
 	/**
 	 * <p>srcе,Ĭϸʽ:<br/>
 	 * col1 col2 col3 ....<br/>
@@ -200,7 +709,7 @@ public class DataManager {
 	 * @return datum in src
 	 */
 	public static List<double[]> loadDatum(String src, String enc, String delim){
-		BufferedReader br;
+		BufferedReader br = null;
 		
 		int nCol = 0;
 		
@@ -209,7 +718,7 @@ public class DataManager {
 		String line = "";
 		String[] entries = null;
 		try {
-			br = new BufferedReader(new InputStreamReader(new FileInputStream(src),enc));
+			br = new BufferedReader(new InputStreamReader(FileManager.openInput(src),enc));
 			while((line = br.readLine()) != null){
 				entries = line.trim().split(delim);
 				nCol = entries.length;
@@ -220,14 +729,14 @@ public class DataManager {
 				
 				datum.add(data);
 			}
-			br.close();
-			
 		} catch (FileNotFoundException e) {
 			e.printStackTrace();
 			return null;
 		} catch (IOException e) {
 			e.printStackTrace();
 			return null;
+		} finally {
+			close(br);
 		}
 
 		return datum;
@@ -243,27 +752,26 @@ public class DataManager {
 	 * @return 
 	 */
 	public static SampleSet loadSampleSet(String src, String enc, LineParserFilter lineParser){
-		BufferedReader br;
+		BufferedReader br = null;
 		
 		SampleSet sampleset = new SampleSet();
 		Sample sample;
 		String line = "";
 		
 		try {
-			br = new BufferedReader(new InputStreamReader(new FileInputStream(src),enc));
+			br = new BufferedReader(new InputStreamReader(FileManager.openInput(src),enc));
 			while((line = br.readLine()) != null){
 				sample = (Sample) lineParser.parse(line.trim());//ʹlineParser
 				sampleset.addSample(sample);
 			}
-			
-			br.close();
-			
 		} catch (FileNotFoundException e) {
 			e.printStackTrace();
 			return null;
 		} catch (IOException e) {
 			e.printStackTrace();
 			return null;
+		} finally {
+			close(br);
 		}
 
 		return sampleset;
@@ -287,7 +795,7 @@ public class DataManager {
 		
 		String line;
 		try {
-			br = new BufferedReader(new InputStreamReader(new FileInputStream(src),enc));
+			br = new BufferedReader(new InputStreamReader(FileManager.openInput(src),enc));
 			while((line = br.readLine()) != null){
 				String[] subs = line.trim().split("\t");
 				if(subs.length < 3)
@@ -306,7 +814,6 @@ public class DataManager {
 				val.add(Integer.parseInt(subs[0]));
 				rateset.map.put(key, val);
 			}
-			br.close();
 		} catch (UnsupportedEncodingException e) {
 			e.printStackTrace();
 			return null;
@@ -316,6 +823,8 @@ public class DataManager {
 		} catch (IOException e) {
 			e.printStackTrace();
 			return null;
+		} finally {
+			close(br);
 		}
 		return rateset;
 	}
@@ -338,7 +847,7 @@ public class DataManager {
 		int key = -1;
 		String line;
 		try {
-			br = new BufferedReader(new InputStreamReader(new FileInputStream(src),enc));
+			br = new BufferedReader(new InputStreamReader(FileManager.openInput(src),enc));
 			while((line = br.readLine()) != null){
 				String[] subs = line.trim().split("\t");
 
@@ -354,7 +863,6 @@ public class DataManager {
 				val.add(Integer.parseInt(subs[1]));
 				map.put(key, val);
 			}
-			br.close();
 		} catch (UnsupportedEncodingException e) {
 			e.printStackTrace();
 			return null;
@@ -364,6 +872,8 @@ public class DataManager {
 		} catch (IOException e) {
 			e.printStackTrace();
 			return null;
+		} finally {
+			close(br);
 		}
 		return map;
 	}
@@ -381,7 +891,7 @@ public class DataManager {
 		int key = -1, preKey = -1;
 		String line;
 		try {
-			br = new BufferedReader(new InputStreamReader(new FileInputStream(src),enc));
+			br = new BufferedReader(new InputStreamReader(FileManager.openInput(src),enc));
 			while((line = br.readLine()) != null){
 				String[] subs = line.trim().split("\t");
 				if(subs.length < 2)
@@ -397,7 +907,6 @@ public class DataManager {
 				}
 				lineList.add(line.trim());
 			}
-			br.close();
 		} catch (UnsupportedEncodingException e) {
 			e.printStackTrace();
 			return;
@@ -407,6 +916,8 @@ public class DataManager {
 		} catch (IOException e) {
 			e.printStackTrace();
 			return;
+		} finally {
+			close(br);
 		}
 	}
 
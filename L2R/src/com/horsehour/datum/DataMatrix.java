@@ -0,0 +1,367 @@
+package com.horsehour.datum;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * DataMatrixʽ洢ݼȫһȵݿ,
+ * ǩint,ʵı߽offsetsʶ
+ * <p>offsets[q]offsets[q + 1]֮ڵq</p>
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140320
+ */
+public class DataMatrix {
+	private int dim = 0;
+	private int nSample = 0;
+	private int nQuery = 0;
+
+	private double[] features;
+	private FeatureBlock block = null;//double[]ʱʹ,ڴӳĻļ
+	private int[] labels;
+	private int[] offsets;
+	private String[] qids;
+
+	public DataMatrix(int dim){
+		this(dim, 1024);
+	}
+
+	/**
+	 * @param dim ά
+	 * @param capacity ԤĿ
+	 */
+	public DataMatrix(int dim, int capacity){
+		this.dim = dim;
+		features = new double[capacity * dim];
+		labels = new int[capacity];
+		offsets = new int[capacity + 1];
+		qids = new String[capacity];
+	}
+
+	/**
+	 * еݿ鹹ݼ,׷
+	 * @param dim
+	 * @param block
+	 * @param labels
+	 * @param offsets
+	 * @param qids
+	 */
+	public DataMatrix(int dim, FeatureBlock block, int[] labels, int[] offsets, String[] qids){
+		if((long) labels.length * dim != block.length() || offsets.length != qids.length + 1)
+			throw new IllegalArgumentException("Dimensions are inconsistent.");
+
+		this.dim = dim;
+		this.block = block;
+		this.labels = labels;
+		this.offsets = offsets;
+		this.qids = qids;
+		nSample = labels.length;
+		nQuery = qids.length;
+	}
+
+	/**
+	 * ׷,qidһͬʱʼµļ
+	 * @param feature
+	 * @param label
+	 * @param qid
+	 */
+	public void addSample(double[] feature, int label, String qid){
+		addSample(feature, feature.length, label, qid);
+	}
+
+	/**
+	 * ׷,featureǰlen,lendimʱӿݿ
+	 * @param feature
+	 * @param len
+	 * @param label
+	 * @param qid
+	 */
+	public void addSample(double[] feature, int len, int label, String qid){
+		if(block != null)
+			throw new UnsupportedOperationException();
+		if(len > dim)
+			widen(len);
+
+		if(nQuery == 0 || !qids[nQuery - 1].equals(qid))
+			newQuery(qid);
+
+		ensureCapacity(nSample + 1);
+		System.arraycopy(feature, 0, features, nSample * dim, len);
+		labels[nSample] = label;
+		nSample++;
+		offsets[nQuery] = nSample;
+	}
+
+	public void addSample(Sample sample){
+		int len = sample.getDim();
+		if(block != null)
+			throw new UnsupportedOperationException();
+		if(len > dim)
+			widen(len);
+
+		if(nQuery == 0 || !qids[nQuery - 1].equals(sample.getQid()))
+			newQuery(sample.getQid());
+
+		ensureCapacity(nSample + 1);
+		int pos = nSample * dim;
+		for(int i = 0; i < len; i++)
+			features[pos + i] = sample.getFeature(i);
+		labels[nSample] = sample.getLabel();
+		nSample++;
+		offsets[nQuery] = nSample;
+	}
+
+	/**
+	 * ʼµļ
+	 * @param qid
+	 */
+	private void newQuery(String qid){
+		if(nQuery + 1 >= offsets.length){
+			offsets = Arrays.copyOf(offsets, 2 * offsets.length);
+			qids = Arrays.copyOf(qids, offsets.length - 1);
+		}
+		qids[nQuery] = qid;
+		offsets[nQuery] = nSample;
+		nQuery++;
+		offsets[nQuery] = nSample;
+	}
+
+	/**
+	 * άȳdimʱӿݿ,0;ڹͼ֮ǰ
+	 * @param newDim
+	 */
+	private void widen(int newDim){
+		double[] wide = new double[labels.length * newDim];
+		for(int i = 0; i < nSample; i++)
+			System.arraycopy(features, i * dim, wide, i * newDim, dim);
+		features = wide;
+		dim = newDim;
+	}
+
+	private void ensureCapacity(int num){
+		int capacity = labels.length;
+		if(num <= capacity)
+			return;
+
+		capacity = Math.max(num, 2 * capacity);
+		labels = Arrays.copyOf(labels, capacity);
+		features = Arrays.copyOf(features, capacity * dim);
+	}
+
+	/**
+	 * ͷŶĴ洢ռ
+	 */
+	public void trimToSize(){
+		if(block != null)
+			return;
+		features = Arrays.copyOf(features, nSample * dim);
+		labels = Arrays.copyOf(labels, nSample);
+		offsets = Arrays.copyOf(offsets, nQuery + 1);
+		qids = Arrays.copyOf(qids, nQuery);
+	}
+
+	/**
+	 * ƴӶݿ,άȲһʱάΪ׼,㲿ֲ0
+	 * @param parts
+	 * @return concatenated matrix
+	 */
+	public static DataMatrix concat(List<DataMatrix> parts){
+		int dim = 0, nSample = 0, nQuery = 0;
+		for(DataMatrix part : parts){
+			dim = Math.max(dim, part.dim);
+			nSample += part.nSample;
+			nQuery += part.nQuery;
+		}
+
+		DataMatrix matrix = new DataMatrix(dim, 0);
+		matrix.features = new double[nSample * dim];
+		matrix.labels = new int[nSample];
+		matrix.offsets = new int[nQuery + 1];
+		matrix.qids = new String[nQuery];
+
+		for(DataMatrix part : parts){
+			if(part.block != null)
+				throw new UnsupportedOperationException();
+			if(part.dim == dim)
+				System.arraycopy(part.features, 0, matrix.features, matrix.nSample * dim, part.nSample * dim);
+			else
+				for(int i = 0; i < part.nSample; i++)
+					System.arraycopy(part.features, i * part.dim, matrix.features,
+							(matrix.nSample + i) * dim, part.dim);
+
+			System.arraycopy(part.labels, 0, matrix.labels, matrix.nSample, part.nSample);
+			System.arraycopy(part.qids, 0, matrix.qids, matrix.nQuery, part.nQuery);
+			for(int q = 0; q < part.nQuery; q++)
+				matrix.offsets[matrix.nQuery + q + 1] = matrix.nSample + part.offsets[q + 1];
+
+			matrix.nSample += part.nSample;
+			matrix.nQuery += part.nQuery;
+		}
+		return matrix;
+	}
+
+	/**
+	 * ָȱݿ,ǩϢԵǰݿ
+	 * <p>FIXED16,ȡֵ޷ʮСȷʾʱΪ;
+	 * ׼޸ĲӦת֮ǰ</p>
+	 * @param precision
+	 * @return matrix of given precision, or this if unchanged
+	 */
+	public DataMatrix toPrecision(FeaturePrecision precision){
+		if(precision == getPrecision())
+			return this;
+
+		int len = nSample * dim;
+		double[] vals = (block == null) ? features : block.get(0, len);
+		int[] labels = Arrays.copyOf(this.labels, nSample);
+		int[] offsets = Arrays.copyOf(this.offsets, nQuery + 1);
+		String[] qids = Arrays.copyOf(this.qids, nQuery);
+
+		if(precision == FeaturePrecision.FLOAT)
+			return new DataMatrix(dim, new FloatFeatureBlock(vals, len), labels, offsets, qids);
+		if(precision == FeaturePrecision.FIXED16)
+			return new DataMatrix(dim, new FixedFeatureBlock(vals, len, dim), labels, offsets, qids);
+
+		DataMatrix matrix = new DataMatrix(dim, 0);
+		matrix.features = Arrays.copyOf(vals, len);
+		matrix.labels = labels;
+		matrix.offsets = offsets;
+		matrix.qids = qids;
+		matrix.nSample = nSample;
+		matrix.nQuery = nQuery;
+		return matrix;
+	}
+
+	/**
+	 * @return Ĵ洢
+	 */
+	public FeaturePrecision getPrecision(){
+		if(block instanceof FixedFeatureBlock)
+			return FeaturePrecision.FIXED16;
+		if(block instanceof FloatFeatureBlock
+				|| (block instanceof MappedFeatureBlock && ((MappedFeatureBlock) block).isSingle()))
+			return FeaturePrecision.FLOAT;
+		return FeaturePrecision.DOUBLE;
+	}
+
+	/**
+	 * qϵͼ
+	 * @param q
+	 * @return sampleset view of query q
+	 */
+	public SampleSet getSampleSet(int q){
+		SampleSet sampleset = new SampleSet(this, offsets[q]);
+		for(int row = offsets[q]; row < offsets[q + 1]; row++)
+			sampleset.getSamples().add(newSample(row, qids[q]));
+		return sampleset;
+	}
+
+	/**
+	 * @return ȫϵͼ
+	 */
+	public List<SampleSet> getSampleSets(){
+		List<SampleSet> samplesets = new ArrayList<SampleSet>(nQuery);
+		for(int q = 0; q < nQuery; q++)
+			samplesets.add(getSampleSet(q));
+		return samplesets;
+	}
+
+	/**
+	 * @param row
+	 * @return rowͼ
+	 */
+	public Sample getSample(int row){
+		return newSample(row, getQid(row));
+	}
+
+	private Sample newSample(int row, String qid){
+		if(block != null)
+			return new Sample(block, row * dim, dim, labels[row], qid);
+		return new Sample(features, row * dim, dim, labels[row], qid);
+	}
+
+	/**
+	 * @param row
+	 * @return rowļ
+	 */
+	public String getQid(int row){
+		int q = Arrays.binarySearch(offsets, 0, nQuery + 1, row);
+		if(q < 0)
+			q = -q - 2;
+		return qids[q];
+	}
+
+	/**
+	 * ȡrowϵĵfid
+	 * @param row
+	 * @param fid
+	 * @return feature value
+	 */
+	public double getFeature(int row, int fid){
+		if(block != null)
+			return block.get(row * dim + fid);
+		return features[row * dim + fid];
+	}
+
+	/**
+	 * ȵ˳ȡ[from, to)Χĵfid
+	 * @param fid
+	 * @param from
+	 * @param to
+	 * @return feature values
+	 */
+	public double[] getFeatures(int fid, int from, int to){
+		double[] vals = new double[to - from];
+		if(block != null){
+			for(int i = from, pos = from * dim + fid; i < to; i++, pos += dim)
+				vals[i - from] = block.get(pos);
+			return vals;
+		}
+		for(int i = from, pos = from * dim + fid; i < to; i++, pos += dim)
+			vals[i - from] = features[pos];
+		return vals;
+	}
+
+	/**
+	 * @return ݿ,FeatureBlockʱnull
+	 */
+	public double[] getFeatureBlock(){
+		return features;
+	}
+
+	/**
+	 * @return double[]洢ݿ
+	 */
+	public FeatureBlock getBlock(){
+		return block;
+	}
+
+	/**
+	 * @param q
+	 * @return qʵqid
+	 */
+	public String getQueryId(int q){
+		return qids[q];
+	}
+
+	public int[] getLabels(){
+		return labels;
+	}
+
+	public int[] getOffsets(){
+		return offsets;
+	}
+
+	public int getDim(){
+		return dim;
+	}
+
+	public int getNumSample(){
+		return nSample;
+	}
+
+	public int getNumQuery(){
+		return nQuery;
+	}
+}
@@ -14,6 +14,7 @@ public class DataSet {
 	private int dim = 0;
 
 	private List<SampleSet> samplesets;
+	private DataMatrix matrix = null;//ʽ洢ݿ
 	
 	public DataSet(){
 		samplesets = new ArrayList<SampleSet>();
@@ -25,6 +26,15 @@ public class DataSet {
 		this.dim = dim;
 	}
 
+	/**
+	 * ʽ洢ݿ鹹ݼ,SampleSetSampleΪݿϵͼ
+	 * @param matrix
+	 */
+	public DataSet(DataMatrix matrix){
+		this(matrix.getSampleSets(), matrix.getDim(), matrix.getNumSample());
+		this.matrix = matrix;
+	}
+
 	/**
 	 * number of SampleSet instances in sampleSets collection
 	 * @return size of sampleSets
@@ -41,6 +51,62 @@ public class DataSet {
 	}
 	public void removeSampleSet(int idx) {
 		samplesets.remove(idx);
+		matrix = null;//ݿ鲻һһӦ
+	}
+
+	/**
+	 * ɲּʹɵݼ,ԭݼSampleSet,
+	 * <p>ʿظ,зŻصز</p>
+	 * @param queries ݼеλ
+	 * @return view of given queries
+	 */
+	public DataSet subset(int[] queries){
+		List<SampleSet> list = new ArrayList<SampleSet>(queries.length);
+		int num = 0;
+		for(int q : queries){
+			SampleSet sampleset = samplesets.get(q);
+			list.add(sampleset);
+			num += sampleset.size();
+		}
+		return new DataSet(list, dim, num);
+	}
+
+	/**
+	 * ݼڲϵͶӰͼ,
+	 * @param fids
+	 * @return projection view of fids
+	 */
+	public DataSet project(int[] fids){
+		List<SampleSet> list = new ArrayList<SampleSet>(size());
+		for(SampleSet sampleset : samplesets)
+			list.add(sampleset.project(fids));
+		return new DataSet(list, fids.length, numTotalSample);
+	}
+
+	/**
+	 * 滻ȫ,޳ּ
+	 * @param samplesets
+	 */
+	void setSampleSets(List<SampleSet> samplesets){
+		this.samplesets = samplesets;
+		matrix = null;
+		numTotalSample = 0;
+		for(SampleSet sampleset : samplesets)
+			numTotalSample += sampleset.size();
+	}
+
+	/**
+	 * ʽ洢ݿ(),ٱݿ
+	 */
+	void resetMatrix(){
+		matrix = null;
+	}
+
+	/**
+	 * @return ʽ洢ݿ,ʽ洢ṹѱ仯ʱnull
+	 */
+	public DataMatrix getMatrix(){
+		return matrix;
 	}
 	
 	public int getNumTotalSample(){
@@ -0,0 +1,56 @@
+package com.horsehour.datum;
+
+/**
+ * FeatureBlockȴ洢ݿ,ڲdouble[]ݼ,
+ * ڴӳĶƻļ
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140325
+ */
+public abstract class FeatureBlock {
+	/**
+	 * ȡposԪ
+	 * @param pos
+	 * @return value at pos
+	 */
+	public abstract double get(int pos);
+
+	/**
+	 * posԪ
+	 * @param pos
+	 * @param val
+	 */
+	public abstract void set(int pos, double val);
+
+	/**
+	 * @return ԪĿ
+	 */
+	public abstract int length();
+
+	/**
+	 * ȡ[from, to)ΧڵԪ
+	 * @param from
+	 * @param to
+	 * @return copy of elements
+	 */
+	public double[] get(int from, int to){
+		double[] vals = new double[to - from];
+		for(int i = from; i < to; i++)
+			vals[i - from] = get(i);
+		return vals;
+	}
+
+	/**
+	 * offsetʼnԪȨֵڻ
+	 * @param offset
+	 * @param weight
+	 * @param n
+	 * @return inner product
+	 */
+	public double innerProduct(int offset, double[] weight, int n){
+		double ret = 0;
+		for(int i = 0; i < n; i++)
+			ret += weight[i] * get(offset + i);
+		return ret;
+	}
+}
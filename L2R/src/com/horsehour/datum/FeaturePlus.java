@@ -1,10 +1,13 @@
 package com.horsehour.datum;
 
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
 import com.horsehour.filter.L2RLineParser;
 import com.horsehour.filter.LineParserFilter;
-import com.horsehour.util.FileManager;
 import com.horsehour.util.TickClock;
 
 /**
@@ -55,23 +58,36 @@ public class FeaturePlus {
 		String query = "";
 		
 		double[] deascore;
-		for(SampleSet sampleset : letor.getSampleSets()){
-			sz = sampleset.size();
-			deascore = new double[sz];
+		BufferedWriter writer = null;
+		try {
+			writer = new BufferedWriter(new FileWriter(dest, true), 1 << 16);
+			for(SampleSet sampleset : letor.getSampleSets()){
+				sz = sampleset.size();
+				deascore = new double[sz];
 
-			if(pos < dea.size()){
-				qid = dea.get(pos)[2];
-				query = sampleset.getSample(0).getQid();
+				if(pos < dea.size()){
+					qid = dea.get(pos)[2];
+					query = sampleset.getSample(0).getQid();
 
-				if(checkDocBlock(query, qid)){
-					for(int i = 0; i < sz; i++)
-						deascore[i] = dea.get(pos + i)[1];
-					pos += sz;
+					if(checkDocBlock(query, qid)){
+						for(int i = 0; i < sz; i++)
+							deascore[i] = dea.get(pos + i)[1];
+						pos += sz;
+					}
 				}
-			}
 			
-			addFeatures(sampleset, deascore);
-			archive(sampleset, dest);
+				addFeatures(sampleset, deascore);
+				archive(sampleset, writer);
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		} finally {
+			if(writer != null)
+				try {
+					writer.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
 		}
 	}
 	
@@ -90,26 +106,24 @@ public class FeaturePlus {
 	 * @param features
 	 */
 	public void addFeatures(SampleSet sampleset, double[] features){
-		int sz = sampleset.size();
-		for(int i = 0; i < sz; i++)
-			sampleset.getSample(i).addFeature(features[i]);
+		sampleset.addFeatures(features);
 	}
 
 	/**
-	 * samplesetdest
+	 * samplesetдwriter
 	 * @param sampleset
-	 * @param dest
+	 * @param writer
+	 * @throws IOException
 	 */
-	private void archive(SampleSet sampleset, String dest){
-		StringBuffer sb = new StringBuffer();
+	private void archive(SampleSet sampleset, Writer writer) throws IOException{
 		for(Sample sample : sampleset.getSamples()){
-			sb.append(sample.getLabel() + " qid:" + sample.getQid());
-			for(int i = 0; i < sample.getDim(); i++)
-				sb.append(" " + (i + 1) + ":" + sample.getFeature(i));
-			sb.append("\r\n");
+			writer.write(sample.getLabel() + " qid:" + sample.getQid());
+			for(int i = 0; i < sample.getDim(); i++){
+				writer.write(" " + (i + 1) + ":");
+				writer.write(Double.toString(sample.getFeature(i)));
+			}
+			writer.write("\r\n");
 		}
-		
-		FileManager.writeFile(dest, sb.toString());
 	}
 	
 	public static void main(String[] args){
@@ -0,0 +1,12 @@
+package com.horsehour.datum;
+
+/**
+ * FeaturePrecisionöĴ洢:DOUBLEΪdouble[],FLOATΪȸ,
+ * FIXED16Ϊ16λ(ȡֵʮСȷʾʱ,ֵ)
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140401
+ */
+public enum FeaturePrecision {
+	DOUBLE, FLOAT, FIXED16;
+}
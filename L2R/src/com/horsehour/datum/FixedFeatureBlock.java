@@ -0,0 +1,252 @@
+package com.horsehour.datum;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * 16λݿ,ڴռΪdouble[]ķ֮һ
+ * <p>ݿȴ洢,ÿdim,()ȷ:ȫȡֵ10^-d(dMAX_DIGITS)
+ * ,Ҳͬȡֵ65536ʱ,Ϊ(round(v * 10^d) - base),ԭֵȫͬ;
+ * ڸе[min, max]ϾΪ65536,(max - min)/131070
+ * ʱ,еȡֵСλͬй,й0~65535ı,
+ * Ϊtable[start + code] * mul + add,;setֵ뵽ı</p>
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140401
+ */
+public class FixedFeatureBlock extends FeatureBlock {
+	private static final int LEVELS = 1 << 16;
+	private static final double[] POW = {1, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6};
+	private static final int MAX_DIGITS = POW.length - 1;
+
+	private final int dim;
+	private final short[] code;
+
+	private final double[] base;//еıƫ,ʱΪ
+	private final double[] scale;//ʱΪ10^d,Ϊ1/step
+	private final int[] levels;//еıĿ
+	private final boolean[] lossless;
+
+	private final double[] table;//йȡֵ
+	private final int[] start;//б0ȡֵеλ
+	private final double[] mul;
+	private final double[] add;
+
+	/**
+	 * valsǰlengthԪ
+	 * @param vals ȴ洢
+	 * @param length
+	 * @param dim ÿеĿ
+	 */
+	public FixedFeatureBlock(double[] vals, int length, int dim){
+		if(dim <= 0 ? length > 0 : length % dim != 0)
+			throw new IllegalArgumentException("Dimensions are inconsistent.");
+
+		this.dim = Math.max(1, dim);
+		code = new short[length];
+		base = new double[this.dim];
+		scale = new double[this.dim];
+		levels = new int[this.dim];
+		lossless = new boolean[this.dim];
+
+		double[] min = new double[this.dim], max = new double[this.dim];
+		int[] digits = new int[this.dim];
+		Arrays.fill(min, Double.POSITIVE_INFINITY);
+		Arrays.fill(max, Double.NEGATIVE_INFINITY);
+		for(int i = 0, c = 0; i < length; i++){
+			double v = vals[i];
+			min[c] = Math.min(min[c], v);
+			max[c] = Math.max(max[c], v);
+			if(digits[c] >= 0)
+				digits[c] = getDigits(v, digits[c]);
+			if(++c == this.dim)
+				c = 0;
+		}
+
+		for(int c = 0; c < this.dim; c++){
+			if(length == 0)
+				min[c] = max[c] = 0;
+
+			double pow = (digits[c] < 0) ? 0 : POW[digits[c]];
+			if(digits[c] >= 0 && Math.rint(max[c] * pow) - Math.rint(min[c] * pow) < LEVELS){
+				lossless[c] = true;
+				scale[c] = pow;
+				base[c] = Math.rint(min[c] * pow);
+				levels[c] = (int) (Math.rint(max[c] * pow) - base[c]) + 1;
+			} else if(max[c] > min[c]){
+				scale[c] = (LEVELS - 1) / (max[c] - min[c]);
+				base[c] = min[c] * scale[c];
+				levels[c] = LEVELS;
+			} else {//ȡֵΨһ,Ϊmin
+				scale[c] = 1;
+				base[c] = min[c];
+				levels[c] = 1;
+			}
+		}
+
+		for(int i = 0, c = 0; i < length; i++){
+			code[i] = encode(vals[i], c);
+			if(++c == this.dim)
+				c = 0;
+		}
+
+		start = new int[this.dim];
+		mul = new double[this.dim];
+		add = new double[this.dim];
+		table = buildTable(digits);
+	}
+
+	/**
+	 * ȡֵ:аСλ,ڱصкϲΪһ;
+	 * ȡֵΨһзֱʹñ뵥ȡֵ
+	 * @param digits еСλ
+	 * @return table
+	 */
+	private double[] buildTable(int[] digits){
+		Integer[] cols = new Integer[dim];
+		for(int c = 0; c < dim; c++)
+			cols[c] = c;
+		final int[] d = digits;
+		Arrays.sort(cols, new Comparator<Integer>(){
+			@Override
+			public int compare(Integer a, Integer b){
+				if(lossless[a] != lossless[b])
+					return lossless[a] ? -1 : 1;
+				if(d[a] != d[b])
+					return (d[a] < d[b]) ? -1 : 1;
+				return Double.compare(base[a], base[b]);
+			}
+		});
+
+		double[] values = new double[64];
+		int size = 0;
+		int identity = -1;//йı
+		double segLo = 0, segHi = -1;//ǰε
+		int segStart = 0, segDigits = -1;
+		for(int c : cols){
+			mul[c] = 1;
+			add[c] = 0;
+			if(!lossless[c] && levels[c] > 1){
+				if(identity < 0){
+					identity = size;
+					values = ensure(values, size + LEVELS);
+					for(int q = 0; q < LEVELS; q++)
+						values[size++] = q;
+				}
+				start[c] = identity;
+				mul[c] = 1 / scale[c];
+				add[c] = base[c] / scale[c];
+				continue;
+			}
+			if(!lossless[c]){//ȡֵΨһ
+				values = ensure(values, size + 1);
+				start[c] = size;
+				values[size++] = base[c];
+				continue;
+			}
+
+			double lo = base[c], hi = base[c] + levels[c] - 1;
+			if(digits[c] != segDigits || lo > segHi + 1){//ʼµĶ
+				segDigits = digits[c];
+				segLo = lo;
+				segHi = lo - 1;
+				segStart = size;
+			}
+			if(hi > segHi){
+				int n = (int) (hi - segHi);
+				values = ensure(values, size + n);
+				for(double v = segHi + 1; v <= hi; v++)
+					values[size++] = v / scale[c];
+				segHi = hi;
+			}
+			start[c] = segStart + (int) (lo - segLo);
+		}
+		return Arrays.copyOf(values, size);
+	}
+
+	private static double[] ensure(double[] values, int capacity){
+		if(capacity <= values.length)
+			return values;
+		return Arrays.copyOf(values, Math.max(capacity, 2 * values.length));
+	}
+
+	/**
+	 * @param v
+	 * @param digits ֪Сλ
+	 * @return ȷʾvʮСλ,MAX_DIGITSʱ-1
+	 */
+	private static int getDigits(double v, int digits){
+		for(int d = digits; d <= MAX_DIGITS; d++)
+			if(Math.rint(v * POW[d]) / POW[d] == v)
+				return d;
+		return -1;
+	}
+
+	private short encode(double val, int c){
+		double q = Math.floor(val * scale[c] - base[c] + 0.5);
+		if(!(q > 0))
+			q = 0;//NaN
+		else if(q > levels[c] - 1)
+			q = levels[c] - 1;
+		return (short) q;
+	}
+
+	private double decode(int pos, int c){
+		return table[start[c] + (code[pos] & 0xFFFF)] * mul[c] + add[c];
+	}
+
+	@Override
+	public double get(int pos){
+		return decode(pos, pos % dim);
+	}
+
+	@Override
+	public void set(int pos, double val){
+		code[pos] = encode(val, pos % dim);
+	}
+
+	@Override
+	public int length(){
+		return code.length;
+	}
+
+	@Override
+	public double[] get(int from, int to){
+		double[] vals = new double[to - from];
+		for(int i = from, c = from % dim; i < to; i++){
+			vals[i - from] = decode(i, c);
+			if(++c == dim)
+				c = 0;
+		}
+		return vals;
+	}
+
+	@Override
+	public double innerProduct(int offset, double[] weight, int n){
+		double ret = 0;
+		for(int i = 0, c = offset % dim; i < n; i++){
+			ret += weight[i] * decode(offset + i, c);
+			if(++c == dim)
+				c = 0;
+		}
+		return ret;
+	}
+
+	/**
+	 * @return ȫеıǷ
+	 */
+	public boolean isLossless(){
+		for(boolean b : lossless)
+			if(!b)
+				return false;
+		return true;
+	}
+
+	/**
+	 * @param fid
+	 * @return fidеıǷ
+	 */
+	public boolean isLossless(int fid){
+		return lossless[fid];
+	}
+}
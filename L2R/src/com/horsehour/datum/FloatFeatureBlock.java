@@ -0,0 +1,57 @@
+package com.horsehour.datum;
+
+/**
+ * float[]ݿ,ڴռΪdouble[]һ,ԼΪ7λЧ
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140401
+ */
+public class FloatFeatureBlock extends FeatureBlock {
+	private final float[] data;
+
+	public FloatFeatureBlock(int length){
+		data = new float[length];
+	}
+
+	/**
+	 * valsǰlengthԪ,Ϊȸ
+	 * @param vals
+	 * @param length
+	 */
+	public FloatFeatureBlock(double[] vals, int length){
+		this(length);
+		for(int i = 0; i < length; i++)
+			data[i] = (float) vals[i];
+	}
+
+	@Override
+	public double get(int pos){
+		return data[pos];
+	}
+
+	@Override
+	public void set(int pos, double val){
+		data[pos] = (float) val;
+	}
+
+	@Override
+	public int length(){
+		return data.length;
+	}
+
+	@Override
+	public double[] get(int from, int to){
+		double[] vals = new double[to - from];
+		for(int i = from; i < to; i++)
+			vals[i - from] = data[i];
+		return vals;
+	}
+
+	@Override
+	public double innerProduct(int offset, double[] weight, int n){
+		double ret = 0;
+		for(int i = 0; i < n; i++)
+			ret += weight[i] * data[offset + i];
+		return ret;
+	}
+}
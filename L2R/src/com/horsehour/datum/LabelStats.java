@@ -0,0 +1,95 @@
+package com.horsehour.datum;
+
+import java.util.Arrays;
+
+/**
+ * LabelStatsԤ޹صıǩͳ:еıǩ
+ * ¸λõDCGԼĵĿ,ָֻԤֵ
+ * <p>󴴽޸,ڶ̼߳乲</p>
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140327
+ */
+public class LabelStats {
+	public static final int[] GAINS = {0, 1, 3, 7, 15, 31};//DCGһ
+
+	private final int[] labels;
+	private final int[] sortedLabels;
+	private final double[] idealDCG;
+	private final int nRelevant;
+
+	public LabelStats(int[] labels){
+		this.labels = labels;
+		int sz = labels.length;
+
+		int maxLabel = 0, minLabel = 0, nRel = 0;
+		for(int label : labels){
+			maxLabel = Math.max(maxLabel, label);
+			minLabel = Math.min(minLabel, label);
+			if(label > 0)
+				nRel++;
+		}
+		nRelevant = nRel;
+
+		sortedLabels = new int[sz];
+		if(minLabel < 0 || maxLabel >= GAINS.length){//ǩ淶Χ,DCG
+			System.arraycopy(labels, 0, sortedLabels, 0, sz);
+			Arrays.sort(sortedLabels);
+			for(int i = 0, j = sz - 1; i < j; i++, j--){
+				int tmp = sortedLabels[i];
+				sortedLabels[i] = sortedLabels[j];
+				sortedLabels[j] = tmp;
+			}
+			idealDCG = null;
+			return;
+		}
+
+		int[] count = new int[maxLabel + 1];//
+		for(int label : labels)
+			count[label]++;
+		for(int label = maxLabel, i = 0; label >= 0; label--)
+			for(int c = 0; c < count[label]; c++)
+				sortedLabels[i++] = label;
+
+		idealDCG = new double[sz];
+		for(int i = 0; i < sz; i++){
+			if(i == 0)
+				idealDCG[0] = GAINS[sortedLabels[0]];
+			else
+				idealDCG[i] = idealDCG[i - 1] + GAINS[sortedLabels[i]] * Math.log(2)/Math.log(i + 1);
+		}
+	}
+
+	/**
+	 * @return ԭʼ˳ıǩ,޸
+	 */
+	public int[] getLabels(){
+		return labels;
+	}
+
+	/**
+	 * @return еıǩ,޸
+	 */
+	public int[] getSortedLabels(){
+		return sortedLabels;
+	}
+
+	/**
+	 * ǰi + 1λõDCG,ǩGAINSΧʱΪnull
+	 * @return ideal dcg prefix,޸
+	 */
+	public double[] getIdealDCG(){
+		return idealDCG;
+	}
+
+	/**
+	 * @return ǩ0ĵĿ
+	 */
+	public int getNumRelevant(){
+		return nRelevant;
+	}
+
+	public int size(){
+		return labels.length;
+	}
+}
@@ -0,0 +1,86 @@
+package com.horsehour.datum;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * ڴӳݿ,ԪΪfloatdouble,Сֽ򱣴
+ * <p>ӳܳ2GB,ݿ鰴SEG_SIZEԪطֶӳ䡣ӳдʱƷʽ,
+ * ̹ͬһҳ,޸(һ)ֻӰ챾,дļ;
+ * ֻʽӳʱ޸</p>
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140325
+ */
+public class MappedFeatureBlock extends FeatureBlock {
+	private static final int SHIFT = 27;
+	private static final int SEG_SIZE = 1 << SHIFT;
+	private static final int MASK = SEG_SIZE - 1;
+
+	private final int length;
+	private DoubleBuffer[] doubles = null;
+	private FloatBuffer[] floats = null;
+
+	/**
+	 * @param channel ļ
+	 * @param position ݿļеʼλ
+	 * @param length ԪĿ
+	 * @param width Ԫֽ,48
+	 * @param mode MapMode.PRIVATEMapMode.READ_ONLY
+	 * @throws IOException
+	 */
+	public MappedFeatureBlock(FileChannel channel, long position, int length, int width,
+			MapMode mode) throws IOException {
+		if(width != 4 && width != 8)
+			throw new IllegalArgumentException("Unsupported element width: " + width);
+
+		this.length = length;
+		int nSeg = (int) (((long) length + SEG_SIZE - 1) >>> SHIFT);
+		if(width == 8)
+			doubles = new DoubleBuffer[nSeg];
+		else
+			floats = new FloatBuffer[nSeg];
+
+		for(int i = 0; i < nSeg; i++){
+			int size = Math.min(SEG_SIZE, length - i * SEG_SIZE);
+			long start = position + (long) i * SEG_SIZE * width;
+			if(width == 8)
+				doubles[i] = channel.map(mode, start, (long) size * width)
+						.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+			else
+				floats[i] = channel.map(mode, start, (long) size * width)
+						.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+		}
+	}
+
+	@Override
+	public double get(int pos){
+		if(doubles != null)
+			return doubles[pos >>> SHIFT].get(pos & MASK);
+		return floats[pos >>> SHIFT].get(pos & MASK);
+	}
+
+	@Override
+	public void set(int pos, double val){
+		if(doubles != null)
+			doubles[pos >>> SHIFT].put(pos & MASK, val);
+		else
+			floats[pos >>> SHIFT].put(pos & MASK, (float) val);
+	}
+
+	@Override
+	public int length(){
+		return length;
+	}
+
+	/**
+	 * @return ԪǷΪȸ
+	 */
+	public boolean isSingle(){
+		return floats != null;
+	}
+}
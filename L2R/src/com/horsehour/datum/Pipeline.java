@@ -0,0 +1,249 @@
+package com.horsehour.datum;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.horsehour.datum.norm.Normalizer;
+import com.horsehour.filter.LineParserFilter;
+
+/**
+ * PipelineԼΪλݼԤ(ˡ׼ͶӰ)
+ * <p>ʱִκβ;ִʱÿξȫٴһ,
+ * ֻһ顣ڴеݼnThread̰߳ʲд,
+ * ļʶ봦,汻˵ļʡɶ߳ͬʱ,
+ * ֻ޸Ĵļ</p>
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140401
+ */
+public class Pipeline {
+	/**
+	 * ڵϵĲ
+	 */
+	public interface Operator {
+		/**
+		 * @param sampleset
+		 * @return ļ,sampleset,nullʱü
+		 */
+		public SampleSet apply(SampleSet sampleset);
+	}
+
+	/**
+	 * Ϊеÿһ
+	 */
+	public interface FeatureFunction {
+		public double[] compute(SampleSet sampleset);
+	}
+
+	public int nThread = 1;
+
+	private final List<Operator> ops = new ArrayList<Operator>();
+
+	/**
+	 * ׷Ӳ
+	 * @param op
+	 * @return this
+	 */
+	public Pipeline then(Operator op){
+		ops.add(op);
+		return this;
+	}
+
+	/**
+	 * ޳ȫǩͬļ,ͬDataManager.preprocess
+	 * @return this
+	 */
+	public Pipeline dropTies(){
+		return then(new Operator(){
+			@Override
+			public SampleSet apply(SampleSet sampleset){
+				return DataManager.isTied(sampleset) ? null : sampleset;
+			}
+		});
+	}
+
+	/**
+	 * ׼,ʹȫͳʱȵnormalizer.fitsetStats
+	 * @param normalizer
+	 * @return this
+	 */
+	public Pipeline normalize(final Normalizer normalizer){
+		return then(new Operator(){
+			@Override
+			public SampleSet apply(SampleSet sampleset){
+				normalizer.normalize(sampleset);
+				return sampleset;
+			}
+		});
+	}
+
+	/**
+	 * ͶӰ,
+	 * @param fids
+	 * @return this
+	 */
+	public Pipeline project(final int[] fids){
+		return then(new Operator(){
+			@Override
+			public SampleSet apply(SampleSet sampleset){
+				return sampleset.project(fids);
+			}
+		});
+	}
+
+	/**
+	 * ÿĩβfunc,֮ʽ洢ݿ
+	 * @param func
+	 * @return this
+	 */
+	public Pipeline augment(final FeatureFunction func){
+		return then(new Operator(){
+			@Override
+			public SampleSet apply(SampleSet sampleset){
+				sampleset.addFeatures(func.compute(sampleset));
+				return sampleset;
+			}
+		});
+	}
+
+	/**
+	 * ξȫ
+	 * @param sampleset
+	 * @return ļ,ʱnull
+	 */
+	public SampleSet apply(SampleSet sampleset){
+		for(int i = 0; i < ops.size() && sampleset != null; i++)
+			sampleset = ops.get(i).apply(sampleset);
+		return sampleset;
+	}
+
+	/**
+	 * дݼеȫ,ּʵ˳
+	 * @param dataset
+	 * @return ݼ,ʾδ滻άȲʱdataset,
+	 * ¹ݼ(ά֮,ʹʽ洢ݿ)
+	 */
+	public DataSet apply(DataSet dataset){
+		final List<SampleSet> source = dataset.getSampleSets();
+		final int m = source.size();
+		final SampleSet[] result = new SampleSet[m];
+
+		int nTask = Math.max(1, Math.min(nThread, m));
+		if(nTask == 1){
+			for(int q = 0; q < m; q++)
+				result[q] = apply(source.get(q));
+		} else {
+			ExecutorService pool = Executors.newFixedThreadPool(nTask);
+			List<Future<Object>> futures = new ArrayList<Future<Object>>(nTask);
+			for(int t = 0; t < nTask; t++){
+				final int from = (int) ((long) m * t / nTask), to = (int) ((long) m * (t + 1) / nTask);
+				futures.add(pool.submit(new Callable<Object>(){
+					@Override
+					public Object call(){
+						for(int q = from; q < to; q++)
+							result[q] = apply(source.get(q));
+						return null;
+					}
+				}));
+			}
+			try {
+				for(Future<Object> future : futures)
+					future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			} catch (ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			} finally {
+				pool.shutdownNow();
+			}
+		}
+
+		boolean unchanged = true;
+		for(int q = 0; q < m && unchanged; q++)
+			unchanged = (result[q] == source.get(q));
+
+		List<SampleSet> samplesets = new ArrayList<SampleSet>(m);
+		for(SampleSet sampleset : result)
+			if(sampleset != null)
+				samplesets.add(sampleset);
+		DataSet processed = toDataSet(samplesets);
+		if(unchanged && processed.getDim() == dataset.getDim())
+			return dataset;
+		return processed;
+	}
+
+	/**
+	 * Դ:ÿȡʱŶȡ,˵ļ
+	 * @param source
+	 * @return iterator over processed querys
+	 */
+	public Iterator<SampleSet> apply(final Iterator<SampleSet> source){
+		return new Iterator<SampleSet>(){
+			private SampleSet next = null;
+
+			@Override
+			public boolean hasNext(){
+				while(next == null && source.hasNext())
+					next = apply(source.next());
+				return next != null;
+			}
+
+			@Override
+			public SampleSet next(){
+				if(!hasNext())
+					throw new NoSuchElementException();
+				SampleSet sampleset = next;
+				next = null;
+				return sampleset;
+			}
+
+			@Override
+			public void remove(){
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * ʶȡļ,ֻͨȫļ
+	 * @param src
+	 * @param lineParser
+	 * @return processed dataset, or null when src cannot be read
+	 */
+	public DataSet load(String src, LineParserFilter lineParser){
+		List<SampleSet> samplesets = new ArrayList<SampleSet>();
+		QueryIterator iter = null;
+		try {
+			iter = new QueryIterator(src, lineParser);
+			Iterator<SampleSet> processed = apply(iter);
+			while(processed.hasNext())
+				samplesets.add(processed.next());
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		} finally {
+			if(iter != null)
+				iter.close();
+		}
+		return toDataSet(samplesets);
+	}
+
+	private static DataSet toDataSet(List<SampleSet> samplesets){
+		int dim = 0, num = 0;
+		for(SampleSet sampleset : samplesets){
+			for(Sample sample : sampleset.getSamples())
+				dim = Math.max(dim, sample.getDim());
+			num += sampleset.size();
+		}
+		return new DataSet(samplesets, dim, num);
+	}
+}
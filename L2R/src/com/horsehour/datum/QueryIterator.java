@@ -0,0 +1,115 @@
+package com.horsehour.datum;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.horsehour.filter.LineParserFilter;
+import com.horsehour.util.FileManager;
+
+/**
+ * ʶȡļ(gzipļ),ÿֻ浱ǰʵ,ڴռļС޹,
+ * ѿռļ;ͬһʵļ
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140331
+ */
+public class QueryIterator implements Iterator<SampleSet>{
+	private static final int BUF_SIZE = 1 << 16;
+
+	private final BufferedReader br;
+	private final LineParserFilter lineParser;
+
+	private Sample pending;//Ѷһʵ׸
+	private boolean closed = false;
+
+	/**
+	 * @param src
+	 * @param enc
+	 * @param lineParser
+	 * @throws IOException
+	 */
+	public QueryIterator(String src, String enc, LineParserFilter lineParser) throws IOException{
+		br = new BufferedReader(new InputStreamReader(FileManager.openInput(src), enc), BUF_SIZE);
+		this.lineParser = lineParser;
+		try {
+			pending = readSample();
+		} catch (IOException e) {
+			close();
+			throw e;
+		} catch (RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+	public QueryIterator(String src, LineParserFilter lineParser) throws IOException{
+		this(src, "utf-8", lineParser);
+	}
+
+	@Override
+	public boolean hasNext(){
+		return pending != null;
+	}
+
+	/**
+	 * @return һʵȫ
+	 */
+	@Override
+	public SampleSet next(){
+		if(pending == null)
+			throw new NoSuchElementException();
+
+		SampleSet sampleset = new SampleSet();
+		String qid = pending.getQid();
+		sampleset.addSample(pending);
+		try {
+			while((pending = readSample()) != null && qid.equals(pending.getQid()))
+				sampleset.addSample(pending);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return sampleset;
+	}
+
+	/**
+	 * ȡһ,,ļĩβʱرļ
+	 * @return sample or null
+	 * @throws IOException
+	 */
+	private Sample readSample() throws IOException{
+		if(closed)
+			return null;
+
+		String line;
+		while((line = br.readLine()) != null){
+			line = line.trim();
+			if(!line.isEmpty())
+				return (Sample) lineParser.parse(line);
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public void remove(){
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * ǰȡʱرļ
+	 */
+	public void close(){
+		if(closed)
+			return;
+		closed = true;
+		pending = null;
+		try {
+			br.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
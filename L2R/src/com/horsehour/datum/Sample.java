@@ -11,6 +11,8 @@ import java.util.Arrays;
  * 0 qid:167 1:0.34 2:1.0 ... 45:0.20 ...
  * ֣һ/صȼڶбʾļidбʾ/ֵ
  * 
+ * ϡindices򱣴idfeaturesӦֵ
+ * 
  * @author Chunheng Jiang
  * @version 1.0
  */
@@ -19,6 +21,12 @@ public class Sample implements Comparable<Sample>{
 	private int label = 0;
 	private String qid = "";
 	private double[] features;
+	private int offset = 0;//featuresеʼλ,ʽ洢ʱfeaturesΪݿ
+	private FeatureBlock block = null;//double[]洢Ĺݿ,ڴӳļ
+	private int[] indices = null;//ϡзid
+	private int nnz = 0;//ϡзĿ
+	private Sample source = null;//ͶӰͼڵ
+	private int[] fids = null;//ͶӰͼĵiΪsourceĵfids[i]
 	
 	/**
 	 * ֪ݹ
@@ -36,6 +44,56 @@ public class Sample implements Comparable<Sample>{
 		this.qid = qid;
 	}
 
+	/**
+	 * 칲ݿͼ,
+	 * @param block ȴ洢ݿ
+	 * @param offset ݿеʼλ
+	 * @param dim
+	 * @param label
+	 * @param qid
+	 */
+	Sample(double[] block, int offset, int dim, int label, String qid){
+		this.features = block;
+		this.offset = offset;
+		this.dim = dim;
+		this.label = label;
+		this.qid = qid;
+	}
+
+	/**
+	 * FeatureBlockϵͼ
+	 * @param block
+	 * @param offset
+	 * @param dim
+	 * @param label
+	 * @param qid
+	 */
+	Sample(FeatureBlock block, int offset, int dim, int label, String qid){
+		this.block = block;
+		this.offset = offset;
+		this.dim = dim;
+		this.label = label;
+		this.qid = qid;
+	}
+
+	/**
+	 * ϡ,ǰnnz
+	 * @param indices еid
+	 * @param values ֵ
+	 * @param nnz Ŀ
+	 * @param dim ά
+	 * @param label
+	 * @param qid
+	 */
+	public Sample(int[] indices, double[] values, int nnz, int dim, int label, String qid){
+		this.indices = Arrays.copyOf(indices, nnz);
+		this.features = Arrays.copyOf(values, nnz);
+		this.nnz = nnz;
+		this.dim = dim;
+		this.label = label;
+		this.qid = qid;
+	}
+
 	/**
 	 * ʹòµSample
 	 * @param sample
@@ -45,17 +103,100 @@ public class Sample implements Comparable<Sample>{
 		this.dim = fids.length;
 		this.label = sample.label;
 		this.features = new double[dim];
-		double[] oldFeatures = sample.features;
+		this.qid = sample.qid;
 		for(int i = 0; i < dim; i++)
-			features[i] = oldFeatures[fids[i]];
+			features[i] = sample.getFeature(fids[i]);
 	}
 
 	/**
-	 * ȡ
+	 * 첿ϵͶӰͼ,,޸ͼ޸ԭ
+	 * @param fids ԭid,ظ
+	 * @return projection view of fids
+	 */
+	public Sample project(int[] fids){
+		Sample view = new Sample((FeatureBlock) null, 0, fids.length, label, qid);
+		view.source = this;
+		view.fids = fids;
+		return view;
+	}
+
+	/**
+	 * ȡ,ͼϡĸ
 	 */
 	public double[] getFeatures(){
+		if(fids != null){
+			double[] vals = new double[dim];
+			for(int i = 0; i < dim; i++)
+				vals[i] = source.getFeature(fids[i]);
+			return vals;
+		}
+		if(indices != null){
+			double[] dense = new double[dim];
+			for(int i = 0; i < nnz; i++)
+				dense[indices[i]] = features[i];
+			return dense;
+		}
+		if(block != null)
+			return block.get(offset, offset + dim);
+		if(isView())
+			return Arrays.copyOfRange(features, offset, offset + dim);
 		return features;
 	}
+
+	/**
+	 * @return ǷΪݿϵͼ
+	 */
+	public boolean isView(){
+		return fids != null || block != null || offset > 0 || features.length != dim;
+	}
+
+	/**
+	 * @param array
+	 * @param blk
+	 * @return Ƿ񱣴ڸݿ
+	 */
+	boolean isBackedBy(double[] array, FeatureBlock blk){
+		return (array != null && features == array) || (blk != null && block == blk);
+	}
+
+	/**
+	 * @return ǷΪϡ
+	 */
+	public boolean isSparse(){
+		return indices != null;
+	}
+
+	/**
+	 * @return ϡзĿ,ά
+	 */
+	public int getNumNonZero(){
+		return (indices == null) ? dim : nnz;
+	}
+
+	/**
+	 * @param k
+	 * @return ϡеkid
+	 */
+	public int getIndex(int k){
+		return indices[k];
+	}
+
+	/**
+	 * @param k
+	 * @return ϡеkֵ
+	 */
+	public double getValue(int k){
+		return features[k];
+	}
+
+	/**
+	 * ϡеkֵ
+	 * @param k
+	 * @param val
+	 */
+	public void setValue(int k, double val){
+		features[k] = val;
+	}
 	
 	/**
 	 * ȡָάȵֵ
@@ -63,16 +204,82 @@ public class Sample implements Comparable<Sample>{
 	 * @return given feature
 	 */
 	public double getFeature(int featureId){
-		return features[featureId];
+		if(fids != null)
+			return source.getFeature(fids[featureId]);
+		if(indices != null){
+			int k = Arrays.binarySearch(indices, 0, nnz, featureId);
+			return (k < 0) ? 0 : features[k];
+		}
+		if(block != null)
+			return block.get(offset + featureId);
+		return features[offset + featureId];
 	}
-	
+
+	/**
+	 * Ȩֵڻ
+	 * @param weight
+	 * @return inner product of features and weight
+	 */
+	public double innerProduct(double[] weight){
+		double ret = 0;
+		if(fids != null){
+			for(int i = 0; i < dim; i++)
+				ret += weight[i] * source.getFeature(fids[i]);
+			return ret;
+		}
+		if(indices != null){
+			for(int i = 0; i < nnz && indices[i] < weight.length; i++)//ȨֵΪ0
+				ret += weight[indices[i]] * features[i];
+			return ret;
+		}
+		if(block != null)
+			return block.innerProduct(offset, weight, dim);
+		for(int i = 0; i < dim; i++)
+			ret += weight[i] * features[offset + i];
+		return ret;
+	}
+
 	/**
 	 * ָάȵ
 	 * @param featureId
 	 * @param val
 	 */
 	public void setFeature(int featureId, double val){
-		features[featureId] = val;
+		if(fids != null)
+			source.setFeature(fids[featureId], val);
+		else if(indices != null)
+			setSparseFeature(featureId, val);
+		else if(block != null)
+			block.set(offset + featureId, val);
+		else
+			features[offset + featureId] = val;
+	}
+
+	/**
+	 * ϡ,ʱµķ
+	 * @param featureId
+	 * @param val
+	 */
+	private void setSparseFeature(int featureId, double val){
+		int k = Arrays.binarySearch(indices, 0, nnz, featureId);
+		if(k >= 0){
+			features[k] = val;
+			return;
+		}
+		if(val == 0)
+			return;
+
+		k = -k - 1;
+		if(nnz == indices.length){
+			int capacity = Math.max(4, 2 * nnz);
+			indices = Arrays.copyOf(indices, capacity);
+			features = Arrays.copyOf(features, capacity);
+		}
+		System.arraycopy(indices, k, indices, k + 1, nnz - k);
+		System.arraycopy(features, k, features, k + 1, nnz - k);
+		indices[k] = featureId;
+		features[k] = val;
+		nnz++;
 	}
 
 	/**
@@ -80,11 +287,26 @@ public class Sample implements Comparable<Sample>{
 	 * @param f
 	 */
 	public void addFeature(double f){
+		if(indices != null){
+			dim += 1;
+			setSparseFeature(dim - 1, f);
+			return;
+		}
+
 		double[] precFeature;
+		if(fids != null)
+			precFeature = Arrays.copyOf(getFeatures(), dim + 1);
+		else if(block != null)
+			precFeature = Arrays.copyOf(block.get(offset, offset + dim), dim + 1);
+		else
+			precFeature = Arrays.copyOfRange(features, offset, offset + dim + 1);
 		dim += 1;
-		precFeature = Arrays.copyOf(features, dim);
 		precFeature[dim - 1] = f;
-		features = Arrays.copyOf(precFeature, dim);
+		features = precFeature;
+		offset = 0;//ͼչ빲ݿ
+		block = null;
+		source = null;
+		fids = null;
 	}
 	
 	/**
@@ -1,6 +1,7 @@
 package com.horsehour.datum;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -18,10 +19,25 @@ import com.horsehour.math.MathLib;
  */
 public class SampleSet{
 	private List<Sample> samples;
+
+	private DataMatrix matrix = null;//ʽ洢ʱڵݿ
+	private int from = 0;//׸ݿек
+	private LabelStats labelStats = null;//ǩͳ,仯ʱ¼
 	
 	public SampleSet(){
 		samples = new ArrayList<Sample>();
 	}
+
+	/**
+	 * ʽ洢ݿϵͼ,fromпʼ
+	 * @param matrix
+	 * @param from
+	 */
+	SampleSet(DataMatrix matrix, int from){
+		this();
+		this.matrix = matrix;
+		this.from = from;
+	}
 	
 	/**
 	 * ȡĿ
@@ -46,6 +62,10 @@ public class SampleSet{
 	 */
 	public SampleSet resample(int num, boolean with){
 		int sz = size(), id;
+		if(!with){
+			matrix = null;
+			labelStats = null;
+		}
 		SampleSet ss = new SampleSet();
 		if(with){
 			for(int i = 0; i < num; i++){
@@ -75,6 +95,8 @@ public class SampleSet{
 
 		List<Integer> ids = MathLib.randUnique(0, sz-1, num);
 		Collections.sort(ids);
+		matrix = null;
+		labelStats = null;
 		
 		SampleSet ss = new SampleSet();
 		for(int i = num - 1; i >= 0; i--)
@@ -89,6 +111,8 @@ public class SampleSet{
 	 */
 	public void addSample(Sample sample){
 		samples.add(sample);
+		matrix = null;//,˻Ϊͨб
+		labelStats = null;
 	}
 	
 	/**
@@ -111,6 +135,26 @@ public class SampleSet{
 		return labels;
 	}
 	
+	/**
+	 * ǩͳ״ʹʱ㲢,ɾʱʧЧ
+	 * @return label statistics
+	 */
+	public LabelStats getLabelStats(){
+		LabelStats stats = labelStats;
+		if(stats == null){
+			stats = new LabelStats(getLabels());
+			labelStats = stats;
+		}
+		return stats;
+	}
+
+	/**
+	 * ֱ޸ǩ,ô˷ʹıǩͳʧЧ
+	 */
+	public void resetLabelStats(){
+		labelStats = null;
+	}
+
 	/**
 	 * @return 꼯
 	 */
@@ -144,6 +188,8 @@ public class SampleSet{
 	
 	public void removeSample(int idx){
 		samples.remove(idx);
+		matrix = null;
+		labelStats = null;
 	}
 	/**
 	 * ȡά
@@ -168,11 +214,61 @@ public class SampleSet{
 	
 	public double[] getFeatures(int fid){
 		int sz = size();
+		if(matrix != null && fid < matrix.getDim())
+			return matrix.getFeatures(fid, from, from + sz);
+
 		double[] featureValue = new double[sz];
 		for(int i = 0; i < sz; i++)
 			featureValue[i] = samples.get(i).getFeature(fid);
 		return featureValue;
 	}
+
+	/**
+	 * idxĵfid,ʽ洢ݿʱֱ޸ݿ,
+	 * ʹݿȡ
+	 * @param idx
+	 * @param fid
+	 * @param val
+	 */
+	public void setFeature(int idx, int fid, double val){
+		Sample sample = samples.get(idx);
+		sample.setFeature(fid, val);
+		if(matrix != null && !sample.isBackedBy(matrix.getFeatureBlock(), matrix.getBlock()))
+			matrix = null;
+	}
+
+	/**
+	 * ÿĩβһ,֮ʽ洢ݿ
+	 * @param features ÿ
+	 */
+	public void addFeatures(double[] features){
+		int sz = size();
+		for(int i = 0; i < sz; i++)
+			samples.get(i).addFeature(features[i]);
+		matrix = null;
+	}
+
+	/**
+	 * ȫиƵdest,ÿdim,㲿ֲ0
+	 * @param dim
+	 * @param dest ȲСsize() * dim
+	 */
+	public void getFeatureMatrix(int dim, double[] dest){
+		int sz = size();
+		double[] block = (matrix == null) ? null : matrix.getFeatureBlock();
+		if(block != null && matrix.getDim() == dim){
+			System.arraycopy(block, from * dim, dest, 0, sz * dim);
+			return;
+		}
+
+		for(int i = 0; i < sz; i++){
+			Sample sample = samples.get(i);
+			int len = Math.min(dim, sample.getDim());
+			for(int f = 0; f < len; f++)
+				dest[i * dim + f] = sample.getFeature(f);
+			Arrays.fill(dest, i * dim + len, (i + 1) * dim, 0);
+		}
+	}
 	/**
 	 * @param fid
 	 * @param theta
@@ -200,6 +296,21 @@ public class SampleSet{
 		return sub;
 	}
 	
+	/**
+	 * ȫڲϵͶӰͼ,,ԭǩͳ
+	 * @param fids
+	 * @return projection view of fids
+	 */
+	public SampleSet project(int[] fids){
+		SampleSet view = new SampleSet();
+		List<Sample> list = new ArrayList<Sample>(size());
+		for(Sample sample : samples)
+			list.add(sample.project(fids));
+		view.samples = list;
+		view.labelStats = labelStats;
+		return view;
+	}
+
 	/**
 	 * ͳָµ
 	 * @param labels
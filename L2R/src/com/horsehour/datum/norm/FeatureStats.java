@@ -0,0 +1,282 @@
+package com.horsehour.datum.norm;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.horsehour.datum.QueryIterator;
+import com.horsehour.datum.Sample;
+import com.horsehour.datum.SampleSet;
+import com.horsehour.filter.LineParserFilter;
+import com.horsehour.util.FileManager;
+
+/**
+ * FeatureStats()ۼƸͳ:ֵֵ,ԼWelford㷨µľֵ뷽
+ * <p>ȫͳڼݼʱһۼ(DataManager.loadDataSet(src, lineParser, stats)),
+ * б;scan޷ڴļϡֻۼƷ,ȡͳʱٲδֵֵ;ͳɰChan˵
+ * ϲ,ɸʵͳõȫͳͳɱΪıļ,
+ * ʱֱӼѵϵͳ,ɨ</p>
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140401
+ */
+public class FeatureStats {
+	private int n = 0;//Ŀ
+	private int dim = 0;
+
+	private int[] count;//ۼƵȡֵĿ,ϡеֵ
+	private double[] mean;
+	private double[] m2;//ƽ
+	private double[] min;
+	private double[] max;
+	private double[] sum;
+
+	public FeatureStats(){
+		this(0);
+	}
+
+	/**
+	 * @param dim Ԥά
+	 */
+	public FeatureStats(int dim){
+		count = new int[dim];
+		mean = new double[dim];
+		m2 = new double[dim];
+		min = new double[dim];
+		max = new double[dim];
+		sum = new double[dim];
+	}
+
+	/**
+	 * @param sampleset
+	 * @return ϵͳ
+	 */
+	public static FeatureStats of(SampleSet sampleset){
+		FeatureStats stats = new FeatureStats(sampleset.size() == 0 ? 0 : sampleset.getSample(0).getDim());
+		stats.add(sampleset);
+		return stats;
+	}
+
+	/**
+	 * ˳ȡļ,ȫͳ,ڴռļС޹
+	 * @param src
+	 * @param lineParser
+	 * @return global statistics, or null when src cannot be read
+	 */
+	public static FeatureStats scan(String src, LineParserFilter lineParser){
+		FeatureStats stats = new FeatureStats();
+		QueryIterator iter = null;
+		try {
+			iter = new QueryIterator(src, lineParser);
+			while(iter.hasNext())
+				stats.add(iter.next());
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		} finally {
+			if(iter != null)
+				iter.close();
+		}
+		return stats;
+	}
+
+	public void add(SampleSet sampleset){
+		for(Sample sample : sampleset.getSamples())
+			add(sample);
+	}
+
+	/**
+	 * ۼһȫ
+	 * @param sample
+	 */
+	public void add(Sample sample){
+		ensureDim(sample.getDim());
+		n++;
+		if(sample.isSparse()){
+			for(int k = 0; k < sample.getNumNonZero(); k++)
+				add(sample.getIndex(k), sample.getValue(k));
+			return;
+		}
+
+		for(int fid = 0; fid < sample.getDim(); fid++)
+			add(fid, sample.getFeature(fid));
+	}
+
+	/**
+	 * ۼһг,ʱ
+	 * @param features
+	 * @param dim ЧĿ
+	 */
+	public void add(double[] features, int dim){
+		ensureDim(dim);
+		n++;
+		for(int fid = 0; fid < dim; fid++)
+			add(fid, features[fid]);
+	}
+
+	private void add(int fid, double val){
+		int c = ++count[fid];
+		if(c == 1){
+			min[fid] = max[fid] = val;
+		} else {
+			min[fid] = Math.min(min[fid], val);
+			max[fid] = Math.max(max[fid], val);
+		}
+		sum[fid] += val;
+
+		double delta = val - mean[fid];
+		mean[fid] += delta / c;
+		m2[fid] += delta * (val - mean[fid]);
+	}
+
+	/**
+	 * ͳ
+	 * @param stats
+	 */
+	public void merge(FeatureStats stats){
+		ensureDim(stats.dim);
+		n += stats.n;
+		for(int fid = 0; fid < stats.dim; fid++){
+			int cb = stats.count[fid];
+			if(cb == 0)
+				continue;
+
+			int ca = count[fid];
+			if(ca == 0){
+				min[fid] = stats.min[fid];
+				max[fid] = stats.max[fid];
+			} else {
+				min[fid] = Math.min(min[fid], stats.min[fid]);
+				max[fid] = Math.max(max[fid], stats.max[fid]);
+			}
+			sum[fid] += stats.sum[fid];
+
+			double delta = stats.mean[fid] - mean[fid];
+			int c = ca + cb;
+			mean[fid] += delta * cb / c;
+			m2[fid] += stats.m2[fid] + delta * delta * ca / c * cb;
+			count[fid] = c;
+		}
+	}
+
+	private void ensureDim(int d){
+		if(d <= count.length){
+			dim = Math.max(dim, d);
+			return;
+		}
+
+		int capacity = Math.max(d, 2 * count.length);
+		count = Arrays.copyOf(count, capacity);
+		mean = Arrays.copyOf(mean, capacity);
+		m2 = Arrays.copyOf(m2, capacity);
+		min = Arrays.copyOf(min, capacity);
+		max = Arrays.copyOf(max, capacity);
+		sum = Arrays.copyOf(sum, capacity);
+		dim = d;
+	}
+
+	/**
+	 * @param fid
+	 * @return δۼƵֵĿ
+	 */
+	private int zeros(int fid){
+		return (fid < dim) ? n - count[fid] : n;
+	}
+
+	public double getMean(int fid){
+		if(n == 0 || fid >= dim)
+			return 0;
+		return mean[fid] * count[fid] / n;
+	}
+
+	/**
+	 * @param fid
+	 * @return (n - 1),ʱΪNaN
+	 */
+	public double getVariance(int fid){
+		double ss = 0;
+		int z = zeros(fid);
+		if(fid < dim && count[fid] > 0)
+			ss = m2[fid] + (z == 0 ? 0 : mean[fid] * mean[fid] * count[fid] / n * z);
+		return ss / (n - 1);
+	}
+
+	public double getStd(int fid){
+		return Math.sqrt(getVariance(fid));
+	}
+
+	public double getMin(int fid){
+		if(fid >= dim || count[fid] == 0)
+			return 0;
+		return (zeros(fid) > 0) ? Math.min(min[fid], 0) : min[fid];
+	}
+
+	public double getMax(int fid){
+		if(fid >= dim || count[fid] == 0)
+			return 0;
+		return (zeros(fid) > 0) ? Math.max(max[fid], 0) : max[fid];
+	}
+
+	public double getSum(int fid){
+		return (fid < dim) ? sum[fid] : 0;
+	}
+
+	public int getNumSample(){
+		return n;
+	}
+
+	public int getDim(){
+		return dim;
+	}
+
+	/**
+	 * ͳ,Ϊά,ÿһ:
+	 * fid count mean m2 min max sum
+	 * @param dest
+	 */
+	public void write(String dest){
+		StringBuffer sb = new StringBuffer();
+		sb.append(n + "\t" + dim + "\r\n");
+		for(int fid = 0; fid < dim; fid++)
+			sb.append(fid + "\t" + count[fid] + "\t" + mean[fid] + "\t" + m2[fid] + "\t"
+					+ min[fid] + "\t" + max[fid] + "\t" + sum[fid] + "\r\n");
+		FileManager.writeFile(dest, sb.toString(), false);
+	}
+
+	/**
+	 * writeͳ
+	 * @param src
+	 * @return statistics, or null when src is missing or malformed
+	 */
+	public static FeatureStats load(String src){
+		List<String> lines = new ArrayList<String>();
+		FileManager.readLines(src, lines);
+		if(lines.isEmpty())
+			return null;
+
+		try {
+			String[] head = lines.get(0).split("\t");
+			int dim = Integer.parseInt(head[1]);
+			if(lines.size() != dim + 1)
+				return null;
+
+			FeatureStats stats = new FeatureStats(dim);
+			stats.n = Integer.parseInt(head[0]);
+			stats.dim = dim;
+			for(int fid = 0; fid < dim; fid++){
+				String[] cols = lines.get(fid + 1).split("\t");
+				stats.count[fid] = Integer.parseInt(cols[1]);
+				stats.mean[fid] = Double.parseDouble(cols[2]);
+				stats.m2[fid] = Double.parseDouble(cols[3]);
+				stats.min[fid] = Double.parseDouble(cols[4]);
+				stats.max[fid] = Double.parseDouble(cols[5]);
+				stats.sum[fid] = Double.parseDouble(cols[6]);
+			}
+			return stats;
+		} catch (RuntimeException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+}
@@ -1,11 +1,5 @@
 package com.horsehour.datum.norm;
 
-import java.util.Collections;
-import java.util.List;
-
-import com.horsehour.datum.Sample;
-import com.horsehour.datum.SampleSet;
-
 /**
  * MaxNormalizer
  * @author Chunheng Jiang
@@ -14,18 +8,13 @@ import com.horsehour.datum.SampleSet;
  */
 public class MaxNormalizer extends Normalizer{
 
+	/**
+	 * ֵ,ֵ0ʱֲ
+	 */
 	@Override
-	public void normalize(SampleSet sampleSet) {
-		List<Sample> samples = sampleSet.getSamples();
-		List<Double> features;
-		int dim = sampleSet.getSample(0).getDim();
-		
-		for(int fid = 0; fid < dim; fid++){
-			features = sampleSet.getFeatureList(fid);
-			double maxFeature = Collections.max(features);
-			if(maxFeature > 0)
-				for(int id = 0; id < samples.size(); id++)
-					samples.get(id).setFeature(fid, features.get(id)/maxFeature);
-		}
+	protected void setTransform(FeatureStats st, int fid, double[] shift, double[] scale){
+		double maxFeature = st.getMax(fid);
+		if(maxFeature > 0)
+			scale[fid] = maxFeature;
 	}
 }
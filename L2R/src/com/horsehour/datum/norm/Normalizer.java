@@ -1,15 +1,24 @@
 package com.horsehour.datum.norm;
 
+import java.util.Arrays;
+
 import com.horsehour.datum.DataSet;
+import com.horsehour.datum.Sample;
 import com.horsehour.datum.SampleSet;
 
 /**
  * Normalizerݵı׼
+ * <p>׼:һۼƸͳ(FeatureStats),ڶ任
+ * val' = (val - shift)/scaleĬʹÿͳ,ʽС,ڶʱڻ;
+ * ȫͳ(fitsetStats),ȫʹͬһͳ,Լʹѵϵͳ
+ * ȫͳڼʱһۼ(DataManager.loadDataSet(src, lineParser, stats)),
+ * setStats,ٱݼϡֻ任,ƽ</p>
  * @author Chunheng Jiang
  * @version 1.0
  * @since 20121231
  */
 public abstract class Normalizer {
+	protected FeatureStats stats = null;//ȫͳ,Ϊnullʱʹüϵͳ
 	
 	public Normalizer(){}
 	
@@ -18,5 +27,80 @@ public abstract class Normalizer {
 			normalize(sampleSet);
 	}
 
-	public abstract void normalize(SampleSet sampleSet);
+	public void normalize(SampleSet sampleSet){
+		if(sampleSet.size() == 0)
+			return;
+
+		FeatureStats st = (stats == null) ? FeatureStats.of(sampleSet) : stats;
+		int dim = getMaxDim(sampleSet);//άܲһ
+		double[] shift = new double[dim];
+		double[] scale = new double[dim];
+		Arrays.fill(scale, 1);
+		for(int fid = 0; fid < Math.min(dim, st.getDim()); fid++)
+			setTransform(st, fid, shift, scale);
+
+		for(int i = 0; i < sampleSet.size(); i++)
+			transform(sampleSet, i, shift, scale);
+	}
+
+	/**
+	 * ͳȷfidı任,ֲ
+	 * @param st
+	 * @param fid
+	 * @param shift
+	 * @param scale
+	 */
+	protected abstract void setTransform(FeatureStats st, int fid, double[] shift, double[] scale);
+
+	private static void transform(SampleSet sampleSet, int idx, double[] shift, double[] scale){
+		Sample sample = sampleSet.getSample(idx);
+		if(sample.isSparse()){
+			for(int k = 0; k < sample.getNumNonZero(); k++){
+				int fid = sample.getIndex(k);
+				if(scale[fid] != 1)
+					sample.setValue(k, sample.getValue(k)/scale[fid]);
+			}
+			return;
+		}
+
+		for(int fid = 0; fid < sample.getDim(); fid++)
+			if(shift[fid] != 0 || scale[fid] != 1)
+				sampleSet.setFeature(idx, fid, (sample.getFeature(fid) - shift[fid])/scale[fid]);
+	}
+
+	/**
+	 * ݼϼȫͳ,˺ȫʾʹøͳ
+	 * @param dataset
+	 * @return global statistics
+	 */
+	public FeatureStats fit(DataSet dataset){
+		FeatureStats st = new FeatureStats(dataset.getDim());
+		for(SampleSet sampleSet : dataset.getSampleSets())
+			st.add(sampleSet);
+		stats = st;
+		return st;
+	}
+
+	/**
+	 * @param stats ȫͳ,Ϊnullʱʹüϵͳ
+	 */
+	public void setStats(FeatureStats stats){
+		this.stats = stats;
+	}
+
+	public FeatureStats getStats(){
+		return stats;
+	}
+
+	/**
+	 * άܲһ(ϡ򳤶Ȳͬ),ȡֵ
+	 * @param sampleSet
+	 * @return dimension of sampleSet
+	 */
+	protected static int getMaxDim(SampleSet sampleSet){
+		int dim = 0;
+		for(Sample sample : sampleSet.getSamples())
+			dim = Math.max(dim, sample.getDim());
+		return dim;
+	}
 }
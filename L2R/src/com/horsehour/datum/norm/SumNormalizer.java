@@ -1,31 +1,15 @@
 package com.horsehour.datum.norm;
 
-import com.horsehour.datum.Sample;
-import com.horsehour.datum.SampleSet;
-
 public class SumNormalizer extends Normalizer{
 	public SumNormalizer(){}
 	
 	/**
-	 * ݼ׼-query based
-	 * @param sampleSet
+	 * ݼ׼-query based:ĺֵ,ֵ0ʱֲ
 	 */
-	public void normalize(SampleSet sampleSet){
-		int dim = sampleSet.getSample(0).getDim();
-		double[] sum = new double[dim];
-		//ÿĺֵ
-		for(int fid = 0; fid < dim; fid++){
-			for(int qid = 0; qid < sampleSet.size(); qid++)
-				sum[fid] += sampleSet.getSample(qid).getFeature(fid);
-		}
-		
-		for(int fid = 0; fid < dim; fid++){
-			//׼
-			if(sum[fid] > 0)
-				for(Sample sample : sampleSet.getSamples()){
-					double val = sample.getFeature(fid)/sum[fid];
-					sample.setFeature(fid, val);
-				}
-		}
+	@Override
+	protected void setTransform(FeatureStats st, int fid, double[] shift, double[] scale){
+		double sum = st.getSum(fid);
+		if(sum > 0)
+			scale[fid] = sum;
 	}
 }
@@ -1,41 +1,19 @@
 package com.horsehour.datum.norm;
 
-import com.horsehour.datum.Sample;
-import com.horsehour.datum.SampleSet;
-
 public class ZScoreNormalizer extends Normalizer{
 	
 	public ZScoreNormalizer(){}
 	
 	/**
-	 * ݼ׼-query based
-	 * @param sampleSet
+	 * ݼ׼-query based:ȥֵԱ׼,׼Ϊ0ʱֲ
+	 * <p>Ļƻϡ,ϡֻԱ׼(ֵ׼ļֵ)</p>
 	 */
-	public void normalize(SampleSet sampleSet){
-		int dim = sampleSet.getSample(0).getDim();
-		double[] mean = new double[dim];
-		//ÿµľֵ
-		for(int fid = 0; fid < dim; fid++){
-			for(int qid = 0; qid < sampleSet.size(); qid++)
-				mean[fid] += sampleSet.getSample(qid).getFeature(fid);
-			
-			mean[fid] /= sampleSet.size();
-		}
-		
-		for(int fid = 0; fid < dim; fid++){
-			double std = 0;//ÿµı׼
-			for(Sample sample : sampleSet.getSamples()){
-				double val = sample.getFeature(fid) - mean[fid];  
-				std += val * val;
-			}
-			std =  Math.sqrt(std/(sampleSet.size() - 1));
-
-			//׼
-			if(std > 0)
-				for(Sample sample : sampleSet.getSamples()){
-					double val = (sample.getFeature(fid) - mean[fid])/std;
-					sample.setFeature(fid, val);
-				}
+	@Override
+	protected void setTransform(FeatureStats st, int fid, double[] shift, double[] scale){
+		double std = st.getStd(fid);
+		if(std > 0){
+			shift[fid] = st.getMean(fid);
+			scale[fid] = std;
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,337 @@
+package com.horsehour.evaluate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import com.horsehour.datum.DataManager;
+import com.horsehour.datum.DataSet;
+import com.horsehour.datum.FeaturePrecision;
+import com.horsehour.datum.Pipeline;
+import com.horsehour.datum.SampleSet;
+import com.horsehour.datum.norm.Normalizer;
+import com.horsehour.datum.norm.SumNormalizer;
+import com.horsehour.filter.L2RLineParser;
+import com.horsehour.filter.LineParserFilter;
+import com.horsehour.metric.MAP;
+import com.horsehour.metric.Metric;
+import com.horsehour.metric.NDCG;
+import com.horsehour.model.EnsembleModel;
+import com.horsehour.model.Model;
+import com.horsehour.ranker.trainer.RankTrainer;
+import com.horsehour.util.FileManager;
+
+/**
+ * еk۽֤:ÿ(, , ѵ, )һ,nWorkerִ߳
+ * <p>ͬһļֻһ,,һɺͷ;
+ * ݼغֻ,ѵ޸ݼ,testMetricsɶ߳ͬʱ,̰߳ȫġ
+ * ڲԼϵܰӵ˳д뱨,ÿk֮Ͼֵ</p>
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140330
+ */
+public class CrossValidator {
+	/**
+	 * Ϊÿ񴴽µѵ,
+	 */
+	public interface TrainerFactory {
+		public RankTrainer create();
+	}
+
+	public String database;//Ŀ¼,ļΪdatabase + corpus + "/Fold" + k + "/train.txt"
+	public String evalbase;//ģļĿ¼
+	public String[] corpus = {"MQ2007", "MQ2008", "OHSUMED"};
+	public int kcv = 5;//k-cross-validation
+
+	public boolean preprocess = false;
+	public boolean normalize = false;//׼
+	public boolean columnar = false;//ʽ洢ݼ
+	public boolean cache = false;//ʹöƻļ
+	public Normalizer normalizer = new SumNormalizer();
+	public FeaturePrecision precision = FeaturePrecision.DOUBLE;//Ĵ洢
+
+	public int nWorker = Runtime.getRuntime().availableProcessors();//ͬʱִе
+	public int nThreadPerJob = 1;//ÿѵʹõ߳
+
+	public Metric[] testMetrics;
+
+	private final List<Job> jobs = new ArrayList<Job>();
+	private final Map<String, DataEntry> datasets = new HashMap<String, DataEntry>();
+
+	public CrossValidator(){
+		int m = 11;
+		testMetrics = new Metric[m];
+		testMetrics[10] = new MAP();
+
+		for(int k = 0; k < 10; k++)
+			testMetrics[k] = new NDCG(k + 1);
+	}
+
+	/**
+	 * ȫϵÿһһ
+	 * @param setting ,ڱģļ
+	 * @param factory
+	 */
+	public void addExperiment(String setting, TrainerFactory factory){
+		for(String name : corpus)
+			for(int fold = 1; fold <= kcv; fold++)
+				jobs.add(new Job(name, fold, setting, factory));
+	}
+
+	/**
+	 * ִȫ,д뱨
+	 * @param reportFile
+	 */
+	public void run(String reportFile){
+		for(Job job : jobs)
+			for(String file : job.getFiles())
+				reference(file);
+
+		ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(nWorker, jobs.size())));
+		List<Future<Object>> futures = new ArrayList<Future<Object>>(jobs.size());
+		for(Job job : jobs)
+			futures.add(pool.submit(job));
+
+		try {
+			for(int i = 0; i < jobs.size(); i++){
+				Job job = jobs.get(i);
+				try {
+					futures.get(i).get();
+				} catch (ExecutionException e) {
+					job.error = e.getCause();
+					e.getCause().printStackTrace();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} finally {
+			pool.shutdownNow();
+		}
+
+		FileManager.writeFile(reportFile, report(), false);
+		jobs.clear();
+	}
+
+	/**
+	 * @return ܼÿk۵ľֵ
+	 */
+	private String report(){
+		int k = testMetrics.length;
+		StringBuffer sb = new StringBuffer();
+		sb.append("corpus\ttrainer\tsetting\tfold");
+		for(Metric metric : testMetrics)
+			sb.append("\t" + metric.name());
+		sb.append("\r\n");
+
+		double[] mean = new double[k];
+		int count = 0;
+		for(int i = 0; i < jobs.size(); i++){
+			Job job = jobs.get(i);
+			sb.append(job.corpus + "\t" + job.trainerName + "\t" + job.setting + "\tFold" + job.fold);
+			if(job.perf == null)
+				sb.append("\tfailed: " + job.error);
+			else{
+				for(int j = 0; j < k; j++){
+					sb.append("\t" + job.perf[j]);
+					mean[j] += job.perf[j];
+				}
+				count++;
+			}
+			sb.append("\r\n");
+
+			if(i + 1 < jobs.size() && job.sameGroup(jobs.get(i + 1)))
+				continue;
+
+			//ͬһͬһʵĸ۽
+			sb.append(job.corpus + "\t" + job.trainerName + "\t" + job.setting + "\tmean(" + count + ")");
+			for(int j = 0; j < k; j++)
+				sb.append("\t" + ((count == 0) ? Double.NaN : mean[j]/count));
+			sb.append("\r\n");
+			mean = new double[k];
+			count = 0;
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Լϸָƽ
+	 * @param model
+	 * @param testset
+	 * @return performance
+	 */
+	private double[] evaluate(Model model, DataSet testset){
+		if(model instanceof EnsembleModel)
+			model = ((EnsembleModel) model).compile();
+
+		int k = testMetrics.length;
+		double[] perf = new double[k];
+		int m = testset.size();
+		for(int i = 0; i < m; i++){
+			SampleSet sampleset = testset.getSampleSet(i);
+			double[] predict = model.predict(sampleset);
+			for(int j = 0; j < k; j++)
+				perf[j] += testMetrics[j].measure(sampleset.getLabelStats(), predict);
+		}
+
+		for(int j = 0; j < k; j++)
+			perf[j] /= m;
+		return perf;
+	}
+
+	private void reference(String file){
+		DataEntry entry = datasets.get(file);
+		if(entry == null){
+			entry = new DataEntry();
+			datasets.put(file, entry);
+		}
+		entry.nRef++;
+	}
+
+	/**
+	 * ȡùݼ,׸̸߳,̵߳ȴ
+	 * @param file
+	 * @param train ѵҪԤ
+	 * @return dataset
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private DataSet acquire(final String file, final boolean train)
+			throws InterruptedException, ExecutionException{
+		FutureTask<DataSet> task = null;
+		DataEntry entry;
+		synchronized(datasets){
+			entry = datasets.get(file);
+			if(entry.future == null){
+				task = new FutureTask<DataSet>(new Callable<DataSet>(){
+					@Override
+					public DataSet call(){
+						return load(file, train);
+					}
+				});
+				entry.future = task;
+			}
+		}
+
+		if(task != null)
+			task.run();
+		return entry.future.get();
+	}
+
+	/**
+	 * ͷһ,ûʱӻƳ
+	 * @param file
+	 */
+	private void release(String file){
+		synchronized(datasets){
+			DataEntry entry = datasets.get(file);
+			if(--entry.nRef == 0)
+				datasets.remove(file);
+		}
+	}
+
+	/**
+	 * ݼ,Ԥȼʵıǩͳ,˺ݼֻ
+	 * @param file
+	 * @param train
+	 * @return dataset
+	 */
+	private DataSet load(String file, boolean train){
+		LineParserFilter lineParser = new L2RLineParser();
+		DataSet dataset;
+		if(cache)
+			dataset = DataManager.loadCachedDataSet(file, lineParser);
+		else if(columnar)
+			dataset = DataManager.loadColumnarDataSet(file, lineParser);
+		else
+			dataset = DataManager.loadDataSet(file, lineParser);
+
+		Pipeline pipeline = new Pipeline();
+		if(train && preprocess)
+			pipeline.dropTies();
+		if(normalize)
+			pipeline.normalize(normalizer);
+		dataset = pipeline.apply(dataset);
+		if(precision != FeaturePrecision.DOUBLE)
+			dataset = DataManager.toPrecision(dataset, precision);
+
+		for(SampleSet sampleset : dataset.getSampleSets())
+			sampleset.getLabelStats();
+		return dataset;
+	}
+
+	private static class DataEntry {
+		private int nRef = 0;
+		private Future<DataSet> future;
+	}
+
+	/**
+	 * һѵ
+	 */
+	private class Job implements Callable<Object>{
+		private final String corpus;
+		private final int fold;
+		private final String setting;
+		private final TrainerFactory factory;
+
+		private String trainerName = "";
+		private double[] perf;
+		private Throwable error;
+
+		Job(String corpus, int fold, String setting, TrainerFactory factory){
+			this.corpus = corpus;
+			this.fold = fold;
+			this.setting = setting;
+			this.factory = factory;
+		}
+
+		/**
+		 * @param job
+		 * @return ǷΪͬһϵͬһʵ
+		 */
+		boolean sameGroup(Job job){
+			return corpus.equals(job.corpus) && setting.equals(job.setting) && factory == job.factory;
+		}
+
+		/**
+		 * @return ѵ֤Լļ
+		 */
+		String[] getFiles(){
+			String dir = database + corpus + "/Fold" + fold + "/";
+			return new String[]{dir + "train.txt", dir + "vali.txt", dir + "test.txt"};
+		}
+
+		@Override
+		public Object call() throws Exception{
+			String[] files = getFiles();
+			try {
+				RankTrainer trainer = factory.create();
+				trainer.nThread = nThreadPerJob;
+				trainer.trainset = acquire(files[0], true);
+				trainer.valiset = acquire(files[1], false);
+				DataSet testset = acquire(files[2], false);
+
+				trainerName = trainer.name();
+				trainer.modelFile = evalbase + corpus + "-" + trainerName
+						+ (setting.isEmpty() ? "" : "-" + setting) + "-Fold" + fold + ".model";
+
+				long start = System.currentTimeMillis();
+				trainer.train();
+				perf = evaluate(trainer.bestModel, testset);
+				System.out.println(corpus + "/Fold" + fold + "\t" + trainerName + "\t" + setting + "\t"
+						+ (System.currentTimeMillis() - start)/1000.0 + " s");
+			} finally {
+				for(String file : files)
+					release(file);
+			}
+			return null;
+		}
+	}
+}
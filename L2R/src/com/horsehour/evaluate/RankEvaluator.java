@@ -1,10 +1,10 @@
 package com.horsehour.evaluate;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
 
 import com.horsehour.datum.DataManager;
 import com.horsehour.datum.DataSet;
+import com.horsehour.datum.QueryIterator;
 import com.horsehour.datum.SampleSet;
 import com.horsehour.datum.norm.Normalizer;
 import com.horsehour.datum.norm.SumNormalizer;
@@ -42,6 +42,10 @@ public class RankEvaluator {
 	public boolean storePredict = false;
 	public boolean preprocess = false;
 	public boolean normalize = false;//׼
+	public boolean columnar = false;//ʽ洢ݼ
+	public int nThread = 1;//ݼ߳
+	public boolean cache = false;//ʹöƻļ
+	public boolean binaryScore = false;//ԤֵԶfloat
 
 	public Normalizer normalizer = new SumNormalizer();
 
@@ -75,11 +79,11 @@ public class RankEvaluator {
 		LineParserFilter lineParser = new L2RLineParser();
 
 		if(!trainFile.isEmpty())
-			trainset = DataManager.loadDataSet(trainFile, lineParser);
+			trainset = loadDataSet(trainFile, lineParser);
 		if(!valiFile.isEmpty())
-			valiset = DataManager.loadDataSet(valiFile, lineParser);
+			valiset = loadDataSet(valiFile, lineParser);
 		if(!testFile.isEmpty())
-			testset = DataManager.loadDataSet(testFile, lineParser);
+			testset = loadDataSet(testFile, lineParser);
 
 		if(trainset != null)
 			if(preprocess)
@@ -104,7 +108,7 @@ public class RankEvaluator {
 	 */
 	public DataSet loadDataSet(String file, boolean normalize){
 		DataSet dataset;
-		dataset = DataManager.loadDataSet(file, new L2RLineParser());
+		dataset = loadDataSet(file, new L2RLineParser());
 
 		if(normalize)
 			normalizer.normalize(dataset);
@@ -112,6 +116,22 @@ public class RankEvaluator {
 		return dataset;
 	}
 
+	/**
+	 * cachenThreadcolumnarѡݼļ洢ʽ
+	 * @param file
+	 * @param lineParser
+	 * @return dataset
+	 */
+	private DataSet loadDataSet(String file, LineParserFilter lineParser){
+		if(cache)
+			return DataManager.loadCachedDataSet(file, lineParser);
+		if(nThread > 1)
+			return DataManager.loadDataSet(file, nThread);
+		if(columnar)
+			return DataManager.loadColumnarDataSet(file, lineParser);
+		return DataManager.loadDataSet(file, lineParser);
+	}
+
 	/**
 	 * ʹָģԤֵ,дָļ
 	 * @param trainer
@@ -121,17 +141,7 @@ public class RankEvaluator {
 	 */
 	public void predict(RankTrainer trainer, String modelFile, String dataFile, String output){
 		Model model = trainer.loadModel(modelFile);
-		DataSet dataset = loadDataSet(dataFile, normalize);
-		int m = dataset.size();
-		StringBuffer sb = new StringBuffer();
-		for(int i = 0; i < m; i++){
-			double[] predict = model.predict(dataset.getSampleSet(i));
-			int n = predict.length;
-			for(int j = 0; j < n; j++)
-				sb.append(predict[j] + "\r\n");
-		}
-
-		FileManager.writeFile(output, sb.toString());
+		predict(model, loadDataSet(dataFile, normalize), output);
 	}
 
 	/**
@@ -142,17 +152,7 @@ public class RankEvaluator {
 	 */
 	public void predict(String modelFile, String dataFile, String output){
 		Model model = ranker.loadModel(modelFile);
-		DataSet dataset = loadDataSet(dataFile, normalize);
-		int m = dataset.size();
-		StringBuffer sb = new StringBuffer();
-		for(int i = 0; i < m; i++){
-			double[] predict = model.predict(dataset.getSampleSet(i));
-			int n = predict.length;
-			for(int j = 0; j < n; j++)
-				sb.append(predict[j] + "\r\n");
-		}
-
-		FileManager.writeFile(output, sb.toString());
+		predict(model, loadDataSet(dataFile, normalize), output);
 	}
 
 
@@ -163,17 +163,7 @@ public class RankEvaluator {
 	 * @param output
 	 */
 	public void predict(Model model, String dataFile, String output){
-		DataSet dataset = loadDataSet(dataFile, normalize);
-		int m = dataset.size();
-		StringBuffer sb = new StringBuffer();
-		for(int i = 0; i < m; i++){
-			double[] predict = model.predict(dataset.getSampleSet(i));
-			int n = predict.length;
-			for(int j = 0; j < n; j++)
-				sb.append(predict[j] + "\r\n");
-		}
-
-		FileManager.writeFile(output, sb.toString());
+		predict(model, loadDataSet(dataFile, normalize), output);
 	}
 
 	/**
@@ -183,16 +173,18 @@ public class RankEvaluator {
 	 * @param output
 	 */
 	public void predict(Model model, DataSet dataset, String output){
-		int m = dataset.size();
-		StringBuffer sb = new StringBuffer();
-		for(int i = 0; i < m; i++){
-			double[] predict = model.predict(dataset.getSampleSet(i));
-			int n = predict.length;
-			for(int j = 0; j < n; j++)
-				sb.append(predict[j] + "\r\n");
+		if(model instanceof EnsembleModel)//ԳԱϲΪһȨֵ
+			model = ((EnsembleModel) model).compile();
+
+		ScoreWriter writer = null;
+		try {
+			writer = new ScoreWriter(output, binaryScore);
+			writer.write(model, dataset);
+		} catch (IOException e) {
+			e.printStackTrace();
+		} finally {
+			close(writer);
 		}
-
-		FileManager.writeFile(output, sb.toString());
 	}
 
 	/**
@@ -205,28 +197,88 @@ public class RankEvaluator {
 	 */
 	public void eval(String predictFile, String dataFile, Metric[] metrics, String output)
 	{
-		List<String> predictLines = new ArrayList<String>(); 
-		FileManager.readLines(predictFile, predictLines);
-
 		DataSet dataset = loadDataSet(dataFile, normalize);
 		int k = metrics.length;
 		double[] perf = new double[k];
 
-		int count = 0;
 		int m = dataset.size();
-		for(int i = 0; i < m; i++){
-			List<Double> predict = new ArrayList<Double>();
-			SampleSet sampleset = dataset.getSampleSet(i);
-			int n = sampleset.size();
-			for(int j = 0; j < n; j++){
-				predict.add(Double.parseDouble(predictLines.get(count)));
-				count++;
+		ScoreReader reader = null;
+		try {
+			reader = new ScoreReader(predictFile);
+			for(int i = 0; i < m; i++){
+				SampleSet sampleset = dataset.getSampleSet(i);
+				double[] predict = reader.next(sampleset.size());
+				for(int j = 0; j < k; j++)
+					perf[j] += metrics[j].measure(sampleset.getLabelStats(), predict);
 			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			return;
+		} finally {
+			if(reader != null)
+				try {
+					reader.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+		}
 
-			for(int j = 0; j < k; j++)
-				perf[j] += metrics[j].measure(sampleset.getLabelList(), predict);
+		StringBuffer sb = new StringBuffer();
+		for(int i = 0; i < k; i++)
+			sb.append(perf[i]/m + "\t");
+		sb.append("\r\n");
+
+		FileManager.writeFile(output, sb.toString());
+	}
+
+	/**
+	 * ʶȡļ,ֺۼ,ڴռļС޹;
+	 * storePredictΪtrueʱͬʱԤֵдpredictFile
+	 * @param model
+	 * @param dataFile
+	 * @param metrics
+	 * @param output
+	 */
+	public void eval(Model model, String dataFile, Metric[] metrics, String output){
+		if(model instanceof EnsembleModel)
+			model = ((EnsembleModel) model).compile();
+
+		int k = metrics.length;
+		double[] perf = new double[k];
+		int m = 0;
+
+		QueryIterator queries = null;
+		ScoreWriter writer = null;
+		try {
+			queries = new QueryIterator(dataFile, new L2RLineParser());
+			if(storePredict && predictFile != null)
+				writer = new ScoreWriter(predictFile, binaryScore);
+
+			while(queries.hasNext()){
+				SampleSet sampleset = queries.next();
+				if(normalize)
+					normalizer.normalize(sampleset);
+
+				double[] predict = model.predict(sampleset);
+				if(writer != null)
+					writer.write(predict);
+
+				for(int j = 0; j < k; j++)
+					perf[j] += metrics[j].measure(sampleset.getLabelStats(), predict);
+				m++;
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			return;
+		} finally {
+			if(queries != null)
+				queries.close();
+			close(writer);
 		}
 
+		if(m == 0)
+			throw new IllegalArgumentException("No queries in data file " + dataFile);
+
 		StringBuffer sb = new StringBuffer();
 		for(int i = 0; i < k; i++)
 			sb.append(perf[i]/m + "\t");
@@ -252,7 +304,7 @@ public class RankEvaluator {
 		for(int i = 0; i < m; i++){
 			SampleSet sampleset = dataset.getSampleSet(i);
 			for(int j = 0; j < k; j++)
-				perf[j] += metrics[j].measure(sampleset.getLabels(), predict[i]);
+				perf[j] += metrics[j].measure(sampleset.getLabelStats(), predict[i]);
 		}
 
 		StringBuffer sb = new StringBuffer();
@@ -269,15 +321,26 @@ public class RankEvaluator {
 	 * @param predictFile
 	 */
 	public void store(double[][] predict, String predictFile){
-		StringBuffer sb = new StringBuffer();
-		int size = predict.length;
-		for(int i = 0; i < size; i++){
-			int n = predict[i].length;
+		ScoreWriter writer = null;
+		try {
+			writer = new ScoreWriter(predictFile, binaryScore);
+			for(int i = 0; i < predict.length; i++)
+				writer.write(predict[i]);
+		} catch (IOException e) {
+			e.printStackTrace();
+		} finally {
+			close(writer);
+		}
+	}
 
-			for(int j = 0; j < n; j++)
-				sb.append(predict[i][j] + "\r\n");
+	private static void close(ScoreWriter writer){
+		if(writer == null)
+			return;
+		try {
+			writer.close();
+		} catch (IOException e) {
+			e.printStackTrace();
 		}
-		FileManager.writeFile(predictFile, sb.toString());
 	}
 
 	/**
@@ -311,7 +374,7 @@ public class RankEvaluator {
 				prediction[j] = MathLib.linearCombinate(prediction[j], 1.0,
 						weak.predict(sampleset), alpha);
 
-				perf += metric.measure(sampleset.getLabels(), prediction[j]);
+				perf += metric.measure(sampleset.getLabelStats(), prediction[j]);
 			}
 
 			perf /= m;
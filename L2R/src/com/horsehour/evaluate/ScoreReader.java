@@ -0,0 +1,95 @@
+package com.horsehour.evaluate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+/**
+ * ʶȡScoreWriterдԤֵ,ļͷԶʶıƸʽ
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140331
+ */
+public class ScoreReader {
+	private final InputStream in;
+	private final BufferedReader reader;//ıʽ
+
+	/**
+	 * @param src
+	 * @throws IOException
+	 */
+	public ScoreReader(String src) throws IOException{
+		InputStream is = new BufferedInputStream(new FileInputStream(src), ScoreWriter.BUF_SIZE);
+		is.mark(8);
+		byte[] head = new byte[4];
+		int nRead = 0;
+		for(int b; nRead < 4 && (b = is.read()) >= 0; nRead++)
+			head[nRead] = (byte) b;
+
+		if(nRead == 4 && toInt(head) == ScoreWriter.MAGIC){
+			in = is;
+			reader = null;
+			int version = readInt();
+			if(version != ScoreWriter.VERSION){
+				is.close();
+				throw new IOException("Unsupported score file version " + version + ".");
+			}
+		}else{
+			is.reset();
+			in = null;
+			reader = new BufferedReader(new InputStreamReader(is, "US-ASCII"));
+		}
+	}
+
+	/**
+	 * ȡһʸĵķֵ
+	 * @param n ĵĿ
+	 * @return scores
+	 * @throws IOException ֵĵĿһʱ
+	 */
+	public double[] next(int n) throws IOException{
+		double[] score = new double[n];
+		if(reader != null){
+			for(int j = 0; j < n; j++){
+				String line = reader.readLine();
+				if(line == null)
+					throw new EOFException("Unexpected end of score file.");
+				score[j] = Double.parseDouble(line);
+			}
+			return score;
+		}
+
+		int len = readInt();
+		if(len != n)
+			throw new IOException("Expected " + n + " scores, found " + len + ".");
+		for(int j = 0; j < n; j++)
+			score[j] = Float.intBitsToFloat(readInt());
+		return score;
+	}
+
+	private int readInt() throws IOException{
+		int v = 0;
+		for(int i = 0; i < 4; i++){
+			int b = in.read();
+			if(b < 0)
+				throw new EOFException("Unexpected end of score file.");
+			v |= b << (8 * i);
+		}
+		return v;
+	}
+
+	private static int toInt(byte[] b){
+		return (b[0] & 0xFF) | (b[1] & 0xFF) << 8 | (b[2] & 0xFF) << 16 | (b[3] & 0xFF) << 24;
+	}
+
+	public void close() throws IOException{
+		if(reader != null)
+			reader.close();
+		else
+			in.close();
+	}
+}
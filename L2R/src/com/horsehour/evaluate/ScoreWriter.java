@@ -0,0 +1,105 @@
+package com.horsehour.evaluate;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.horsehour.datum.DataSet;
+import com.horsehour.model.Model;
+
+/**
+ * дԤֵ,ʹù̶СĻ,ڴռݼС޹
+ * <p>ıʽÿһֵ,ԭStringBufferƴӵͬ;Ƹʽ(Сֽ)
+ * Ϊmagicversion,ÿһintĵĿĵfloatֵ
+ * ָʽScoreReaderȡ</p>
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140331
+ */
+public class ScoreWriter {
+	public static final int MAGIC = 0x4C325253;//"L2RS"
+	public static final int VERSION = 1;
+
+	static final int BUF_SIZE = 1 << 16;
+
+	private final OutputStream out;
+	private final boolean binary;
+	private final byte[] buf = new byte[BUF_SIZE];
+	private int pos = 0;
+
+	/**
+	 * @param dest
+	 * @param binary ǷԶfloat
+	 * @throws IOException
+	 */
+	public ScoreWriter(String dest, boolean binary) throws IOException{
+		out = new FileOutputStream(dest);
+		this.binary = binary;
+		if(binary){
+			putInt(MAGIC);
+			putInt(VERSION);
+		}
+	}
+
+	/**
+	 * дһʸĵķֵ
+	 * @param score
+	 * @throws IOException
+	 */
+	public void write(double[] score) throws IOException{
+		if(binary){
+			putInt(score.length);
+			for(int i = 0; i < score.length; i++)
+				putInt(Float.floatToIntBits((float) score[i]));
+			return;
+		}
+
+		for(int i = 0; i < score.length; i++){
+			String str = Double.toString(score[i]);
+			int len = str.length();
+			ensure(len + 2);
+			for(int c = 0; c < len; c++)
+				buf[pos++] = (byte) str.charAt(c);
+			buf[pos++] = '\r';
+			buf[pos++] = '\n';
+		}
+	}
+
+	/**
+	 * ֲд
+	 * @param model
+	 * @param dataset
+	 * @throws IOException
+	 */
+	public void write(Model model, DataSet dataset) throws IOException{
+		int m = dataset.size();
+		for(int i = 0; i < m; i++)
+			write(model.predict(dataset.getSampleSet(i)));
+	}
+
+	private void putInt(int v) throws IOException{
+		ensure(4);
+		buf[pos++] = (byte) v;
+		buf[pos++] = (byte) (v >>> 8);
+		buf[pos++] = (byte) (v >>> 16);
+		buf[pos++] = (byte) (v >>> 24);
+	}
+
+	private void ensure(int n) throws IOException{
+		if(pos + n > buf.length)
+			flush();
+	}
+
+	public void flush() throws IOException{
+		out.write(buf, 0, pos);
+		pos = 0;
+	}
+
+	public void close() throws IOException{
+		try {
+			flush();
+		} finally {
+			out.close();
+		}
+	}
+}
@@ -0,0 +1,344 @@
+package com.horsehour.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.horsehour.datum.Sample;
+
+/**
+ * L2RByteParserֱֽϽ¸ʽ,мַ:
+ * <p>0 qid:167 1:0.34 2:1.0 ... 45:0.20 ... #docid = ...</p>
+ * <p>ڿõĻ,getLabelgetQidgetFeaturesȡ,
+ * ͬqidֻһַ,ӳΪ</p>
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140322
+ */
+public class L2RByteParser implements LineParserFilter{
+	private static final double[] POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7,
+		1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19,
+		1e20, 1e21, 1e22};
+
+	private int label;
+	private int dim = 0;//ѽеĿ
+	private int lineDim = 0;//ǰеĿ
+	private double[] features = new double[64];
+
+	private String qid = "";
+	private int qidId = -1;
+	private byte[] qidBytes = new byte[16];
+	private int qidLen = -1;
+	private Map<String, Integer> qidTable = new HashMap<String, Integer>();
+	private List<String> qidList = new ArrayList<String>();
+
+	private int pos;//ǰλ
+
+	/**
+	 * [from, to)Χڵһֽ
+	 * @param buf
+	 * @param from
+	 * @param to
+	 * @return лעзfalse
+	 * @throws IllegalArgumentException ݸʽ,ȱqididС1ֵ޷
+	 */
+	public boolean parse(byte[] buf, int from, int to){
+		for(int i = from; i < to; i++){
+			if(buf[i] == '#'){
+				to = i;
+				break;
+			}
+		}
+
+		pos = skipBlank(buf, from, to);
+		if(pos == to)
+			return false;
+
+		int mark = pos;
+		label = (int) parseLong(buf, to);
+		if(!isInteger(buf, mark) || (pos < to && !isBlank(buf[pos])))
+			throw malformed("label", buf, from, to);
+
+		pos = skipBlank(buf, pos, to);
+		if(to - pos < 4 || buf[pos] != 'q' || buf[pos + 1] != 'i' || buf[pos + 2] != 'd' || buf[pos + 3] != ':')
+			throw malformed("qid", buf, from, to);
+		pos += 4;//skip "qid:"
+		int start = pos;
+		while(pos < to && !isBlank(buf[pos]))
+			pos++;
+		internQid(buf, start, pos);
+
+		Arrays.fill(features, 0, dim, 0);
+		lineDim = 0;
+		while((pos = skipBlank(buf, pos, to)) < to){
+			mark = pos;
+			long id = parseLong(buf, to);
+			if(!isInteger(buf, mark) || pos == to || buf[pos] != ':' || id < 1 || id > Integer.MAX_VALUE)
+				throw malformed("feature id", buf, from, to);
+			int fid = (int) id;
+			pos++;//skip ':'
+
+			double val;
+			try {
+				val = parseDouble(buf, to);
+			} catch (NumberFormatException e) {
+				throw malformed("feature value", buf, from, to);
+			}
+
+			if(fid > features.length)
+				features = Arrays.copyOf(features, Math.max(fid, 2 * features.length));
+			features[fid - 1] = val;
+			if(fid > lineDim)
+				lineDim = fid;
+		}
+
+		if(lineDim > dim)
+			dim = lineDim;
+		return true;
+	}
+
+	/**
+	 * @param buf
+	 * @param mark ʼλ
+	 * @return [mark, pos)ǷΪѡŵ
+	 */
+	private boolean isInteger(byte[] buf, int mark){
+		return pos > mark && buf[pos - 1] >= '0' && buf[pos - 1] <= '9';
+	}
+
+	private static IllegalArgumentException malformed(String field, byte[] buf, int from, int to){
+		char[] chars = new char[to - from];
+		for(int i = 0; i < chars.length; i++)
+			chars[i] = (char) (buf[from + i] & 0xff);
+		return new IllegalArgumentException("Malformed " + field + " in line: " + new String(chars).trim());
+	}
+
+	/**
+	 * L2RLineParserݵĽӿ
+	 */
+	@Override
+	public Sample parse(String line) {
+		byte[] buf = new byte[line.length()];
+		for(int i = 0; i < buf.length; i++)
+			buf[i] = (byte) line.charAt(i);
+
+		if(!parse(buf, 0, buf.length))
+			return null;
+		return new Sample(Arrays.copyOf(features, lineDim), label, qid);
+	}
+
+	/**
+	 * ͬqidͬһַ,ӳΪ
+	 * @param buf
+	 * @param from
+	 * @param to
+	 */
+	private void internQid(byte[] buf, int from, int to){
+		int len = to - from;
+		if(len == qidLen){
+			boolean same = true;
+			for(int i = 0; i < len; i++){
+				if(qidBytes[i] != buf[from + i]){
+					same = false;
+					break;
+				}
+			}
+			if(same)
+				return;
+		}
+
+		if(len > qidBytes.length)
+			qidBytes = new byte[len];
+		System.arraycopy(buf, from, qidBytes, 0, len);
+		qidLen = len;
+
+		char[] chars = new char[len];
+		for(int i = 0; i < len; i++)
+			chars[i] = (char) (buf[from + i] & 0xff);
+		qid = new String(chars);
+
+		Integer id = qidTable.get(qid);
+		if(id == null){
+			id = qidList.size();
+			qidTable.put(qid, id);
+			qidList.add(qid);
+		}else
+			qid = qidList.get(id);
+		qidId = id;
+	}
+
+	/**
+	 * 
+	 * @param buf
+	 * @param to
+	 * @return integer at pos
+	 */
+	private long parseLong(byte[] buf, int to){
+		boolean negative = false;
+		if(pos < to && buf[pos] == '-'){
+			negative = true;
+			pos++;
+		}else if(pos < to && buf[pos] == '+')
+			pos++;
+
+		long val = 0;
+		byte b;
+		while(pos < to && (b = buf[pos]) >= '0' && b <= '9'){
+			val = val * 10 + (b - '0');
+			pos++;
+		}
+		return negative ? -val : val;
+	}
+
+	/**
+	 * ʮС,Чֲ15λָСʱֱӼ(Double.parseDoubleһ),
+	 * Double.parseDouble
+	 * @param buf
+	 * @param to
+	 * @return decimal at pos
+	 */
+	private double parseDouble(byte[] buf, int to){
+		int start = pos;
+		boolean negative = false;
+		if(pos < to && buf[pos] == '-'){
+			negative = true;
+			pos++;
+		}else if(pos < to && buf[pos] == '+')
+			pos++;
+
+		long mantissa = 0;
+		int nDigit = 0;
+		int exp = 0;
+		boolean digit = false;//Ƿ
+		byte b;
+		while(pos < to && (b = buf[pos]) >= '0' && b <= '9'){
+			digit = true;
+			if(mantissa != 0 || b != '0'){
+				mantissa = mantissa * 10 + (b - '0');
+				nDigit++;
+			}
+			pos++;
+		}
+
+		if(pos < to && buf[pos] == '.'){
+			pos++;
+			while(pos < to && (b = buf[pos]) >= '0' && b <= '9'){
+				digit = true;
+				if(mantissa != 0 || b != '0'){
+					mantissa = mantissa * 10 + (b - '0');
+					nDigit++;
+				}
+				exp--;
+				pos++;
+			}
+		}
+
+		boolean slow = nDigit > 15 || !digit;
+		if(pos < to && (buf[pos] == 'e' || buf[pos] == 'E')){
+			pos++;
+			int mark = pos;
+			exp += (int) parseLong(buf, to);
+			if(!isInteger(buf, mark))//ָȱ,Double.parseDouble
+				slow = true;
+		}
+
+		if(pos < to && !isBlank(buf[pos]))//NaN, Infinity, etc.
+			slow = true;
+
+		if(slow || exp < -22 || exp > 22){
+			while(pos < to && !isBlank(buf[pos]))
+				pos++;
+			char[] chars = new char[pos - start];
+			for(int i = 0; i < chars.length; i++)
+				chars[i] = (char) buf[start + i];
+			return Double.parseDouble(new String(chars));
+		}
+
+		double val = mantissa;
+		if(exp < 0)
+			val /= POW10[-exp];
+		else
+			val *= POW10[exp];
+		return negative ? -val : val;
+	}
+
+	/**
+	 * ȡһֽеqid,
+	 * @param buf
+	 * @param from
+	 * @param to
+	 * @return qid,лעзnull
+	 */
+	public static String extractQid(byte[] buf, int from, int to){
+		int pos = skipBlank(buf, from, to);
+		if(pos == to || buf[pos] == '#')
+			return null;
+
+		while(pos < to && !isBlank(buf[pos]))//skip label
+			pos++;
+		pos = skipBlank(buf, pos, to);
+		while(pos < to && buf[pos] != ':')//skip "qid:"
+			pos++;
+
+		int start = ++pos;
+		while(pos < to && !isBlank(buf[pos]) && buf[pos] != '#')
+			pos++;
+		if(start >= pos)
+			return null;
+
+		char[] chars = new char[pos - start];
+		for(int i = 0; i < chars.length; i++)
+			chars[i] = (char) (buf[start + i] & 0xff);
+		return new String(chars);
+	}
+
+	private static boolean isBlank(byte b){
+		return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+	}
+
+	private static int skipBlank(byte[] buf, int from, int to){
+		while(from < to && isBlank(buf[from]))
+			from++;
+		return from;
+	}
+
+	public int getLabel(){
+		return label;
+	}
+
+	public String getQid(){
+		return qid;
+	}
+
+	/**
+	 * @return qidӦ
+	 */
+	public int getQidId(){
+		return qidId;
+	}
+
+	/**
+	 * @return ,ЧΪgetDim(),ǰ֮ĲΪ0
+	 */
+	public double[] getFeatures(){
+		return features;
+	}
+
+	public int getDim(){
+		return dim;
+	}
+
+	/**
+	 * @return ǰеĿ(id)
+	 */
+	public int getLineDim(){
+		return lineDim;
+	}
+
+	@Override
+	public String name() {
+		return "L2RByteParser";
+	}
+}
@@ -1,5 +1,7 @@
 package com.horsehour.filter;
 
+import java.util.Arrays;
+
 import com.horsehour.datum.Sample;
 
 /**
@@ -7,31 +9,93 @@ import com.horsehour.datum.Sample;
  * <p>label	1:0.7	2:0.2	5:0.1	13:-1</p>
  * <p>label:(-1,+1,...)ʾ,˺ʾб,ܲȫʾ,ȱʧıʾֵΪ0,
  * һٵһеһidά</p>
+ * <p>Ϊϡ,,άȡѽid</p>
  * @author Chunheng Jiang
- * @version 1.0
+ * @version 2.0
  * @since 20130509
  */
 public class SVMLineParser implements LineParserFilter{
 	private int dim = 0;
+	private int[] indices = new int[64];
+	private double[] values = new double[64];
 	
 	public SVMLineParser(){}
 
 	@Override
 	public Sample parse(String line) {
-		String[] segments = line.trim().split(" ");
-		int len = segments.length;
-		String[] pair = segments[len - 1].split(":");
-		dim = Integer.parseInt(pair[0]);
+		int end = line.indexOf('#');
+		if(end >= 0)
+			line = line.substring(0, end);
+		return parse(line, "");
+	}
 
-		int label = Integer.parseInt(segments[0].replace("+", ""));
-		double[] features = new double[dim];
+	/**
+	 * ע͵
+	 * @param line
+	 * @param qid Ĭϵļ,кqid:xxʱԺΪ׼
+	 * @return sparse sample
+	 */
+	protected Sample parse(String line, String qid){
+		String[] segments = line.trim().split("\\s+");
+		int label = parseLabel(segments[0]);
+
+		int nnz = 0;
+		boolean sorted = true;
 		for(int i = 1; i < segments.length; i++){
-			pair = segments[i].split(":");
-			features[Integer.parseInt(pair[0]) - 1] = Double.parseDouble(pair[1]); 
+			int pos = segments[i].indexOf(':');
+			if(pos < 0)
+				continue;
+
+			String key = segments[i].substring(0, pos);
+			if(key.equals("qid")){
+				qid = segments[i].substring(pos + 1);
+				continue;
+			}
+
+			double val = Double.parseDouble(segments[i].substring(pos + 1));
+			if(val == 0)
+				continue;
+
+			if(nnz == indices.length){
+				indices = Arrays.copyOf(indices, 2 * nnz);
+				values = Arrays.copyOf(values, 2 * nnz);
+			}
+			indices[nnz] = Integer.parseInt(key) - 1;
+			values[nnz] = val;
+			if(nnz > 0 && indices[nnz] < indices[nnz - 1])
+				sorted = false;
+			if(indices[nnz] >= dim)
+				dim = indices[nnz] + 1;
+			nnz++;
+		}
+
+		if(!sorted)
+			sort(nnz);
+		return new Sample(indices, values, nnz, dim, label, qid);
+	}
+
+	protected int parseLabel(String label){
+		return Integer.parseInt(label.replace("+", ""));
+	}
+
+	/**
+	 * idԷ
+	 * @param nnz
+	 */
+	private void sort(int nnz){
+		for(int i = 1; i < nnz; i++){
+			int fid = indices[i];
+			double val = values[i];
+			int j = i - 1;
+			for(; j >= 0 && indices[j] > fid; j--){
+				indices[j + 1] = indices[j];
+				values[j + 1] = values[j];
+			}
+			indices[j + 1] = fid;
+			values[j + 1] = val;
 		}
-		return new Sample(features, label, "");
 	}
-	
+
 	@Override
 	public String name() {
 		return "SVMLineParser";
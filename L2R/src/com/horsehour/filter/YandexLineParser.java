@@ -1,21 +1,27 @@
 package com.horsehour.filter;
 
-import java.util.Map;
-
 import com.horsehour.datum.Sample;
 /**
  * YandexLineParser¸ʽ
  * <p>label 1:0.2 5:0.1 ... 145:0.23 # qid</p>
+ * <p>SVMݸʽͬ,Ϊϡ;صȼС,Ϊ</p>
  * @author Chunheng Jiang
  * @version 1.0
  * @since 20131101
  */
-public class YandexLineParser implements LineParserFilter{
+public class YandexLineParser extends SVMLineParser{
+
+	@Override
+	public Sample parse(String line) {
+		int end = line.indexOf('#');
+		if(end < 0)
+			return parse(line, "");
+		return parse(line.substring(0, end), line.substring(end + 1).trim());
+	}
 
 	@Override
-	public Map<Float, Sample> parse(String line) {
-		
-		return null;
+	protected int parseLabel(String label){
+		return (int) Math.round(Double.parseDouble(label));
 	}
 
 	@Override
@@ -2,9 +2,11 @@ package com.horsehour.function;
 
 
 public class LogisticFunction implements ActivationFunction {
-	private float a = 1.0f;
+	private final float a;
 	
-	public LogisticFunction(){}
+	public LogisticFunction(){
+		this(1.0f);
+	}
 	
 	//a should be positive
 	public LogisticFunction(float a){
@@ -640,6 +640,65 @@ public class MathLib {
 		return arr;
 	}
 	
+	/**
+	 * ֿ˷c = a * b^T,aΪmkСbΪnkСcΪmnеȾ,aaOffʼ
+	 * <p>4 x 4ӿ,ÿԪ԰k˳ۼ,innerProductһ</p>
+	 * @param a
+	 * @param aOff
+	 * @param m
+	 * @param b
+	 * @param n
+	 * @param k
+	 * @param c
+	 */
+	public static void multiplyTransposed(double[] a, int aOff, int m, double[] b, int n, int k,
+			double[] c){
+		int i = 0;
+		for(; i + 4 <= m; i += 4){
+			int a0 = aOff + i * k, a1 = a0 + k, a2 = a1 + k, a3 = a2 + k;
+			int j = 0;
+			for(; j + 4 <= n; j += 4){
+				int b0 = j * k, b1 = b0 + k, b2 = b1 + k, b3 = b2 + k;
+				double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+				double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+				double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+				double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+				for(int f = 0; f < k; f++){
+					double x0 = b[b0 + f], x1 = b[b1 + f], x2 = b[b2 + f], x3 = b[b3 + f];
+					double w = a[a0 + f];
+					c00 += w * x0; c01 += w * x1; c02 += w * x2; c03 += w * x3;
+					w = a[a1 + f];
+					c10 += w * x0; c11 += w * x1; c12 += w * x2; c13 += w * x3;
+					w = a[a2 + f];
+					c20 += w * x0; c21 += w * x1; c22 += w * x2; c23 += w * x3;
+					w = a[a3 + f];
+					c30 += w * x0; c31 += w * x1; c32 += w * x2; c33 += w * x3;
+				}
+				int pos = i * n + j;
+				c[pos] = c00; c[pos + 1] = c01; c[pos + 2] = c02; c[pos + 3] = c03;
+				pos += n;
+				c[pos] = c10; c[pos + 1] = c11; c[pos + 2] = c12; c[pos + 3] = c13;
+				pos += n;
+				c[pos] = c20; c[pos + 1] = c21; c[pos + 2] = c22; c[pos + 3] = c23;
+				pos += n;
+				c[pos] = c30; c[pos + 1] = c31; c[pos + 2] = c32; c[pos + 3] = c33;
+			}
+			for(; j < n; j++)
+				for(int r = 0; r < 4; r++)
+					c[(i + r) * n + j] = dot(a, aOff + (i + r) * k, b, j * k, k);
+		}
+		for(; i < m; i++)
+			for(int j = 0; j < n; j++)
+				c[i * n + j] = dot(a, aOff + i * k, b, j * k, k);
+	}
+
+	private static double dot(double[] a, int aOff, double[] b, int bOff, int k){
+		double sum = 0;
+		for(int f = 0; f < k; f++)
+			sum += a[aOff + f] * b[bOff + f];
+		return sum;
+	}
+
 	/**
 	 * תΪ
 	 * @param <K>
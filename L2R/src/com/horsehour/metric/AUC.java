@@ -1,10 +1,9 @@
 package com.horsehour.metric;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
-import com.horsehour.util.Pair;
+import com.horsehour.util.Sorter;
 
 /**
  * Area Under Curve of ROC
@@ -18,23 +17,24 @@ public class AUC extends Metric{
 
 	@Override
 	public double measure(List<Integer> desire, List<Double> predict)
+	{
+		return measure(toIntArray(desire), toDoubleArray(predict));
+	}
+
+	@Override
+	public double measure(int[] desire, double[] predict)
 	{
 		int nPositive = 0;
 		int nNegative = 0;
-
-		int len = predict.size();
-		List<Pair<Double, Integer>> list = new ArrayList<Pair<Double, Integer>>();
+		int len = predict.length;
+		int[] order = getBuffer(0, len);
 		for (int i = 0; i < len; i++) {
-			int label = desire.get(i);
-			if(label == 0)
+			if(desire[i] == 0)
 				nNegative++;
-
-			list.add(new Pair<Double, Integer>(predict.get(i), label));
+			order[i] = i;
 		}
-
 		nPositive = len - nNegative;
-
-		Collections.sort(list);
+		Sorter.indexSort(predict, order, len, false);
 
 		float fp = 0;
 		float tp = 0;
@@ -42,13 +42,9 @@ public class AUC extends Metric{
 		float tpPrev = 0;
 		double area = 0;
 		double fPrev = Double.MIN_VALUE;
-
-		Pair<Double, Integer> pair;
 		for(int i = 0; i < len; i++)
 		{
-			pair = list.get(i);
-			
-			double curF = pair.getKey();
+			double curF = predict[order[i]];
 			
 			if (curF != fPrev) {
 				area += Math.abs(fp - fpPrev) * ((tp + tpPrev) / 2.0);
@@ -56,14 +52,12 @@ public class AUC extends Metric{
 				fpPrev = fp;
 				tpPrev = tp;
 			}
-
-			int label = pair.getValue();
+			int label = desire[order[i]];
 			if (label == 1)
 				tp++;
 			else
 				fp++;
 		}
-
 		area += Math.abs(nNegative - fpPrev) * ((nPositive + tpPrev) / 2.0);
 		area /= ((double) nPositive * nNegative);
 		return area;
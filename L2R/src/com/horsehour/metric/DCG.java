@@ -23,7 +23,12 @@ public class DCG extends Metric {
 
 	@Override
 	public double measure(List<Integer> desire, List<Double> predict){
-		return getTopKDCG(desire, predict)[k - 1];
+		return measure(toIntArray(desire), toDoubleArray(predict));
+	}
+
+	@Override
+	public double measure(int[] desire, double[] predict){
+		return getDCG(desire, rank(predict, k));
 	}
 
 	public double[] getTopKDCG(List<Integer> desire, List<Double> predict){
@@ -59,6 +64,32 @@ public class DCG extends Metric {
 		return dcg;
 	}
 
+	/**
+	 * dcg@k,ڴ
+	 * @param desire ʵǩ
+	 * @param order ĵ,Ϊnullʱdesireԭ˳
+	 * @return dcg@k
+	 */
+	protected double getDCG(int[] desire, int[] order){
+		int sz = desire.length;
+		if(sz == 0)
+			return 0;
+
+		double dcg = gains[desire[(order == null) ? 0 : order[0]]];
+		for(int i = 1; i < k; i++){
+			int r = 0;
+			if(i < sz)
+				r = desire[(order == null) ? i : order[i]];
+			dcg = dcg + gains[r] * Math.log(2)/Math.log(i + 1);
+		}
+		return dcg;
+	}
+
+	@Override
+	public boolean isRankBased(){
+		return true;
+	}
+
 	@Override
 	public String name() {
 		return "DCG@" + k;
@@ -1,11 +1,7 @@
 package com.horsehour.metric;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
-import com.horsehour.util.Sorter;
-
 
 /**
  * Expected Reciprocal Rank is based on the cascade model of search. The cascade model 
@@ -20,43 +16,44 @@ import com.horsehour.util.Sorter;
  */
 
 public class ERR extends Metric{
-	private List<Double> satisfactionProb;
 	
-	public ERR(){
-		satisfactionProb = new ArrayList<Double>();
-	}
+	public ERR(){}
 	
 	@Override
 	public double measure(List<Integer> desire, List<Double> predict) {
-		Sorter.linkedSort(predict, desire, true);
-		for(int i = 0; i < desire.size(); i++)
-			satisfactionProb.add(desire.get(i) + 0.0);
-		
-		int maxLevel = Collections.max(desire);
-		
-		double hitProb = 0;
-		for(int idx = 0; idx < satisfactionProb.size(); idx++){
-			hitProb = (Math.pow(2, satisfactionProb.get(idx)) - 1)/Math.pow(2, maxLevel);
-			satisfactionProb.set(idx, hitProb);
-		}
-		
-		float quality = 0;
-		for(int idx = 0; idx < satisfactionProb.size(); idx++)
-			quality += getTopkProb(idx + 1);
-		
-		return quality;
+		return measure(toIntArray(desire), toDoubleArray(predict));
 	}
 
-	//ȡtop k ERR
-	protected double getTopkProb(int k){
-		double topkERR = 1.0;
-		for(int idx = 0; idx < k - 1; idx++)
-			topkERR *= (1 - satisfactionProb.get(idx));
-		
-		topkERR *= satisfactionProb.get(k - 1)/k;
-		return topkERR;
+	/**
+	 * err = sum(r:R(r)/r * prod(i < r:(1 - R(i)))), R = (2^g - 1)/2^gmax
+	 * λۻûδֹͣĸ,ӶO(n)
+	 */
+	@Override
+	public double measure(int[] desire, double[] predict){
+		int sz = desire.length;
+		if(sz == 0)
+			return 0;
+
+		int maxLevel = desire[0];
+		for(int i = 1; i < sz; i++)
+			maxLevel = Math.max(maxLevel, desire[i]);
+		double norm = Math.pow(2, maxLevel);
+
+		int[] order = rank(predict);
+		double quality = 0, notStop = 1;
+		for(int idx = 0; idx < sz; idx++){
+			double hitProb = (Math.pow(2, desire[order[idx]]) - 1)/norm;
+			quality += notStop * hitProb/(idx + 1);
+			notStop *= (1 - hitProb);
+		}
+		return quality;
 	}
 	
+	@Override
+	public boolean isRankBased(){
+		return true;
+	}
+
 	@Override
 	public String name() {
 		return "ERR";
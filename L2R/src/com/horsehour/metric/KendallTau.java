@@ -13,17 +13,26 @@ public class KendallTau extends Metric{
 	
 	@Override
 	public double measure(List<Integer> desire, List<Double> predict) {
+		return measure(toIntArray(desire), toDoubleArray(predict));
+	}
+
+	@Override
+	public double measure(int[] desire, double[] predict){
 		return 1 - tauDistance(desire, predict);
 	}
 
 	//бtau
 	public double tauDistance(List<Integer> desire, List<Double> predict){
+		return tauDistance(toIntArray(desire), toDoubleArray(predict));
+	}
+
+	public double tauDistance(int[] desire, double[] predict){
 		double distance = 0;
-		int len = desire.size(), discordant = 0;
+		int len = desire.length, discordant = 0;
 		for(int i = 0; i < len - 1; i++){
 			for(int j = i + 1; j < len; j++){
 				discordant += 
-						(desire.get(i) - desire.get(j)) * (predict.get(i) - predict.get(j)) > 0
+						(desire[i] - desire[j]) * (predict[i] - predict[j]) > 0
 						? 0 : 1;
 			}
 		}
@@ -1,9 +1,8 @@
 package com.horsehour.metric;
 
-import java.util.ArrayList;
 import java.util.List;
 
-import com.horsehour.util.Sorter;
+import com.horsehour.datum.LabelStats;
 
 /**
  * ʵMAP(Mean Average Precision)׼
@@ -20,31 +19,55 @@ public class MAP extends Metric{
 	 * ģ͵ܱ
 	 */
 	public double measure(List<Integer> desire, List<Double> predict){
-		List<Integer> label = new ArrayList<Integer>();
-		List<Double> score = new ArrayList<Double>();
-		label.addAll(desire);
-		score.addAll(predict);
-		
-		Sorter.linkedSort(score, label, true);
-		int sz = label.size();
+		return measure(toIntArray(desire), toDoubleArray(predict));
+	}
+
+	@Override
+	public double measure(int[] desire, double[] predict){
+		int[] order = rank(predict);
+		int sz = desire.length;
 		int nRel = 0;
 		double averagePrecision = 0;
-
 		for(int i = 0; i < sz; i++){
-			int r = label.get(i);
-
+			int r = desire[order[i]];
 			if(rel[r] == 1){
 				nRel++;
 				averagePrecision += (double) nRel/(i + 1);
 			}
 		}
-
 		if(nRel == 0)
 			return 0;
-
 		return averagePrecision / nRel;
 	}
 	
+	/**
+	 * ûĵʱ,ҵȫĵǰ
+	 */
+	@Override
+	public double measure(LabelStats stats, double[] predict){
+		int nTotal = stats.getNumRelevant();
+		if(nTotal == 0)
+			return 0;
+
+		int[] desire = stats.getLabels();
+		int[] order = rank(predict);
+		int nRel = 0;
+		double averagePrecision = 0;
+		for(int i = 0; nRel < nTotal; i++){
+			int r = desire[order[i]];
+			if(rel[r] == 1){
+				nRel++;
+				averagePrecision += (double) nRel/(i + 1);
+			}
+		}
+		return averagePrecision / nRel;
+	}
+
+	@Override
+	public boolean isRankBased(){
+		return true;
+	}
+
 	@Override
 	public String name() {
 		return "MAP";
@@ -1,10 +1,8 @@
 package com.horsehour.metric;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
-import com.horsehour.util.Sorter;
+import com.horsehour.datum.LabelStats;
 
 /**
  * MAPNDCG@1֮
@@ -22,19 +20,21 @@ public class MAPNDCG extends Metric{
 	 * IdealDCG means the prediction is perfectly consistent with desire scores
 	 */
 	public double measure(List<Integer> desire, List<Double> predict){
-		List<Integer> label = new ArrayList<Integer>();
-		List<Double> score = new ArrayList<Double>();
-		label.addAll(desire);
-		score.addAll(predict);
-		
-		Sorter.linkedSort(score, label, true);//scorelabel
-		double dcg = gains[label.get(0)];
+		return measure(toIntArray(desire), toDoubleArray(predict));
+	}
+
+	@Override
+	public double measure(int[] desire, double[] predict){
+		int[] order = rank(predict);
+		double dcg = gains[desire[order[0]]];
 		
-		int sz = label.size();
+		int sz = desire.length;
 		int nRel = 0;
 		double ap = 0;
+		int maxLabel = 0;
 		for(int i = 0; i < sz; i++){
-			int r = label.get(i);
+			int r = desire[order[i]];
+			maxLabel = Math.max(maxLabel, r);
 
 			if(rel[r] == 1){
 				nRel++;
@@ -48,8 +48,7 @@ public class MAPNDCG extends Metric{
 		else
 			map = ap/nRel;
 
-		Collections.sort(label, Collections.reverseOrder());
-		double idcg = gains[label.get(0)];
+		double idcg = gains[maxLabel];
 		if(idcg == 0)
 			dcg = 0;//ʵбȼͬ
 		else
@@ -58,6 +57,21 @@ public class MAPNDCG extends Metric{
 		return map + dcg;
 	}
 
+	/**
+	 * ȫǩΪ0ʱMAPNDCG@1Ϊ0,
+	 */
+	@Override
+	public double measure(LabelStats stats, double[] predict){
+		if(stats.getNumRelevant() == 0 && stats.getIdealDCG() != null)
+			return 0;
+		return measure(stats.getLabels(), predict);
+	}
+
+	@Override
+	public boolean isRankBased(){
+		return true;
+	}
+
 	@Override
 	public String name() {
 		return "MAPNDCG";
@@ -1,11 +1,9 @@
 package com.horsehour.metric;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
-import com.horsehour.util.Sorter;
+import com.horsehour.datum.LabelStats;
 
 /**
  * λNDCGƽֵ
@@ -35,28 +33,34 @@ public class MeanNDCG extends Metric{
 
 	@Override
 	public double measure(List<Integer> desire, List<Double> predict){
-		List<Integer> label = new ArrayList<Integer>();
-		List<Double> score = new ArrayList<Double>();
-		label.addAll(desire);
-		score.addAll(predict);
-
-		Sorter.linkedSort(score, label, true);//scorelabel
-		double[] dcg = getDCG(label);
-		Collections.sort(label, Collections.reverseOrder());
-		double[] idcg = getDCG(label);
-		
-		if(idcg[0] == 0)//еıȾΪ0,ֶȷ
+		return measure(toIntArray(desire), toDoubleArray(predict));
+	}
+
+	/**
+	 * ǰmin(k, n)λ,޸k
+	 */
+	@Override
+	public double measure(int[] desire, double[] predict){
+		int len = desire.length;
+		int n = Math.min(k, len);
+		int[] order = rank(predict, k);
+		int[] label = sortLabel(desire);
+		if(gains[label[0]] == 0)//еıȾΪ0,ֶȷ
 			return 1;
-		
+
+		double dcg = 0, idcg = 0;
 		double weightsum = 0;
 		double norm = 0;
-		int len = desire.size();
-		for(int i = 0; i < len; i++){
-			double r = idcg[i]; 
-			if(r == 0)//idcgs in following must also be zeros(rank list is too long) 
-				break;
+		for(int i = 0; i < n; i++){
+			if(i == 0){
+				dcg = gains[desire[order[0]]];
+				idcg = gains[label[0]];
+			}else{
+				dcg = dcg + gains[desire[order[i]]] * Math.log(2)/Math.log(i + 1);
+				idcg = idcg + gains[label[i]] * Math.log(2)/Math.log(i + 1);
+			}
 
-			weightsum += omega[i] * dcg[i] / r;
+			weightsum += omega[i] * dcg / idcg;
 			norm += omega[i];
 		}
 
@@ -66,25 +70,42 @@ public class MeanNDCG extends Metric{
 		return weightsum/norm;
 	}
 
-	/**
-	 * dcg@k = sum(i:(2^desire[i] - 1)/log(i + 1)), where i implies the
-	 * position in permutation based on predicted scores, i = 1,2,...,k;
-	 * @param label ʵǩ
-	 * @return dcg list at any position
-	 */
-	protected double[] getDCG(List<Integer> label){
-		int len = label.size();
-		if(k > len)
-			k = len;
+	@Override
+	public double measure(LabelStats stats, double[] predict){
+		double[] idcg = stats.getIdealDCG();
+		if(idcg == null || !Arrays.equals(gains, LabelStats.GAINS))
+			return measure(stats.getLabels(), predict);
+
+		if(idcg[0] == 0)
+			return 1;
 
-		double[] dcg = new double[k];
+		int[] desire = stats.getLabels();
+		int len = desire.length;
+		int n = Math.min(k, len);
+		int[] order = rank(predict, k);
 
-		dcg[0] = gains[label.get(0)];
-		for(int i = 1; i < k; i++){
-			int r = label.get(i);
-			dcg[i] = dcg[i - 1] + gains[r] * Math.log(2)/Math.log(i + 1);
+		double dcg = 0;
+		double weightsum = 0;
+		double norm = 0;
+		for(int i = 0; i < n; i++){
+			if(i == 0)
+				dcg = gains[desire[order[0]]];
+			else
+				dcg = dcg + gains[desire[order[i]]] * Math.log(2)/Math.log(i + 1);
+
+			weightsum += omega[i] * dcg / idcg[i];
+			norm += omega[i];
 		}
-		return dcg;
+
+		if(norm == 0)
+			return weightsum/len;
+		
+		return weightsum/norm;
+	}
+
+	@Override
+	public boolean isRankBased(){
+		return true;
 	}
 
 	@Override
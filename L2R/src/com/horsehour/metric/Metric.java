@@ -1,8 +1,12 @@
 package com.horsehour.metric;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import com.horsehour.datum.LabelStats;
+import com.horsehour.util.Sorter;
+
 /**
  * Metricquery-level׼ĻΪ
  * @author Chunheng Jiang
@@ -23,6 +27,13 @@ public abstract class Metric {
 	 */
 	public abstract double measure(List<Integer> desire, List<Double> predict);
 
+	/**
+	 * ԭĶӿ,ĬתΪб;
+	 * öд˸÷,װҲڴ,бӿתø÷
+	 * @param desire
+	 * @param predict
+	 * @return 㷨ָ
+	 */
 	public double measure(int[] desire, double[] predict){
 		List<Integer> desireList = new ArrayList<Integer>();
 		List<Double> predictList = new ArrayList<Double>();
@@ -34,6 +45,107 @@ public abstract class Metric {
 		return measure(desireList, predictList);
 	}
 
+	/**
+	 * ʹüʻıǩͳ,Ĭֻʹеıǩ;
+	 * NDCGȶֱӶȡDCG,ֻԤֵ
+	 * @param stats
+	 * @param predict
+	 * @return 㷨ָ
+	 */
+	public double measure(LabelStats stats, double[] predict){
+		return measure(stats.getLabels(), predict);
+	}
+
+	private static final ThreadLocal<int[][]> buffers = new ThreadLocal<int[][]>(){
+		@Override
+		protected int[][] initialValue(){
+			return new int[2][64];
+		}
+	};
+
+	/**
+	 * ǰ߳̿õĻ,´εǰЧ
+	 * @param id ,0,1ڱǩ
+	 * @param n С
+	 * @return scratch buffer
+	 */
+	protected static int[] getBuffer(int id, int n){
+		int[][] buf = buffers.get();
+		if(buf[id].length < n)
+			buf[id] = new int[Math.max(n, 2 * buf[id].length)];
+		return buf[id];
+	}
+
+	/**
+	 * Ԥֵĵ,ʱSorter.linkedSortһ
+	 * @param predict
+	 * @return ĵ,̻߳
+	 */
+	protected static int[] rank(double[] predict){
+		int n = predict.length;
+		int[] order = getBuffer(0, n);
+		for(int i = 0; i < n; i++)
+			order[i] = i;
+		Sorter.indexSort(predict, order, n, true);
+		return order;
+	}
+
+	/**
+	 * ֻųǰkλĵ,@k
+	 * @param predict
+	 * @param k
+	 * @return ĵ,ǰmin(k, n)λЧ,̻߳
+	 */
+	protected static int[] rank(double[] predict, int k){
+		int n = predict.length;
+		int[] order = getBuffer(0, n);
+		for(int i = 0; i < n; i++)
+			order[i] = i;
+		Sorter.partialSort(predict, order, n, k, true);
+		return order;
+	}
+
+	/**
+	 * ǩ,ڼ
+	 * @param desire
+	 * @return ıǩ,̻߳
+	 */
+	protected static int[] sortLabel(int[] desire){
+		int n = desire.length;
+		int[] label = getBuffer(1, n);
+		System.arraycopy(desire, 0, label, 0, n);
+		Arrays.sort(label, 0, n);
+		for(int i = 0, j = n - 1; i < j; i++, j--){
+			int tmp = label[i];
+			label[i] = label[j];
+			label[j] = tmp;
+		}
+		return label;
+	}
+
+	protected static int[] toIntArray(List<Integer> list){
+		int[] arr = new int[list.size()];
+		for(int i = 0; i < arr.length; i++)
+			arr[i] = list.get(i);
+		return arr;
+	}
+
+	protected static double[] toDoubleArray(List<Double> list){
+		double[] arr = new double[list.size()];
+		for(int i = 0; i < arr.length; i++)
+			arr[i] = list.get(i);
+		return arr;
+	}
+
+	/**
+	 * ֵǷֻȡĵ˳(ʱĵ),
+	 * вʱ¼
+	 * @return rank based or not
+	 */
+	public boolean isRankBased(){
+		return false;
+	}
+
 	/**
 	 * @return Metric
 	 */
@@ -1,10 +1,9 @@
 package com.horsehour.metric;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 
-import com.horsehour.util.Sorter;
+import com.horsehour.datum.LabelStats;
 
 /**
  * ÊµÏÖ±ê×¼¶ÈÁ¿Normalized Discount Cumulative Gain(NDCG)
@@ -26,24 +25,36 @@ public class NDCG extends DCG{
 	 * IdealDCG means the prediction is perfectly consistent with desire scores
 	 */
 	public double measure(List<Integer> desire, List<Double> predict){
-		if(k > desire.size())
+		return measure(toIntArray(desire), toDoubleArray(predict));
+	}
+
+	@Override
+	public double measure(int[] desire, double[] predict){
+		if(k > desire.length)
 			return 0;
 
-		List<Integer> label = new ArrayList<Integer>();
-		List<Double> score = new ArrayList<Double>();
-		label.addAll(desire);
-		score.addAll(predict);
-		Sorter.linkedSort(score, label, true);//»ùÓÚscore¶Ôlabel½µÐòÅÅÁÐ
-		
-		double[] dcg = getTopKDCG(label);
-		Collections.sort(label, Collections.reverseOrder());
-		double[] idcg = getTopKDCG(label);
+		double dcg = getDCG(desire, rank(predict, k));
+		double r = getDCG(sortLabel(desire), null);
+		if(r == 0)
+			return 1;
+		else
+			return dcg/r;
+	}
+
+	@Override
+	public double measure(LabelStats stats, double[] predict){
+		double[] idcg = stats.getIdealDCG();
+		if(idcg == null || !Arrays.equals(gains, LabelStats.GAINS))
+			return measure(stats.getLabels(), predict);
+
+		int[] desire = stats.getLabels();
+		if(k > desire.length)
+			return 0;
 
 		double r = idcg[k - 1];
 		if(r == 0)
 			return 1;
-		else
-			return dcg[k - 1]/r;
+		return getDCG(desire, rank(predict, k))/r;
 	}
 
 	@Override
@@ -1,9 +1,5 @@
 package com.horsehour.metric;
 
-import java.util.ArrayList;
-import java.util.List;
-
-
 /**
  * PFound is a metric proposed by Gulin of Yandex, it also based on the 
  * cascade model of search like ERR. It's a probabilistic measure of user 
@@ -20,24 +16,34 @@ import java.util.List;
 public class PFound extends ERR{
 	private float probBreak = 0.15f;
 	
-	private List<Double> satisfactionProb = null;
-	
 	public PFound(float probBreak){
-		this();
 		this.probBreak = probBreak;
 	}
 
-	public PFound(){
-		satisfactionProb = new ArrayList<Double>();		
-	}
+	public PFound(){}
+
+	/**
+	 * pfound = sum(r:pLook(r) * R(r)), pLook(r) = pLook(r - 1) * (1 - R(r - 1)) * (1 - pBreak)
+	 */
+	@Override
+	public double measure(int[] desire, double[] predict){
+		int sz = desire.length;
+		if(sz == 0)
+			return 0;
+
+		int maxLevel = desire[0];
+		for(int i = 1; i < sz; i++)
+			maxLevel = Math.max(maxLevel, desire[i]);
+		double norm = Math.pow(2, maxLevel);
 
-	protected double getTopkProb(int k){
-		double topk = 1.0;
-		for(int idx = 0; idx < k - 1; idx++)
-			topk *= (1 - satisfactionProb.get(idx)) *(1- probBreak);
-		
-		topk *= satisfactionProb.get(k - 1);
-		return topk;
+		int[] order = rank(predict);
+		double quality = 0, look = 1;
+		for(int idx = 0; idx < sz; idx++){
+			double hitProb = (Math.pow(2, desire[order[idx]]) - 1)/norm;
+			quality += look * hitProb;
+			look *= (1 - hitProb) * (1 - probBreak);
+		}
+		return quality;
 	}
 	
 	@Override
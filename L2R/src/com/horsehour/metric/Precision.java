@@ -25,8 +25,22 @@ public class Precision extends Metric{
 	
 	@Override
 	public double measure(List<Integer> desire, List<Double> predict) {
-		double[] topP = getTopKPrecision(desire, predict);
-		return topP[k - 1];
+		return measure(toIntArray(desire), toDoubleArray(predict));
+	}
+
+	@Override
+	public double measure(int[] desire, double[] predict){
+		int[] order = rank(predict, k);
+		int sz = desire.length;
+		int nRel = 0;
+		for(int i = 0; i < k; i++){
+			int r = 0;
+			if(i < sz)
+				r = desire[order[i]];
+			if(rel[r] == 1)
+				nRel++;
+		}
+		return (double) nRel/k;
 	}
 
 	public double[] getTopKPrecision(List<Integer> desire, List<Double> predict){
@@ -58,6 +72,11 @@ public class Precision extends Metric{
 		return precisionAtN;
 	}
 
+	@Override
+	public boolean isRankBased(){
+		return true;
+	}
+
 	@Override
 	public String name() {
 		return "P@" + k;
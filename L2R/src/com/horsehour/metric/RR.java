@@ -2,8 +2,6 @@ package com.horsehour.metric;
 
 import java.util.List;
 
-import com.horsehour.util.Sorter;
-
 /**
  * <p>RRMetricǵReciprocal Rank, һʵĵָֻ֮صĵĵ
  * ҪʴϵͳQuestion Answering</p>
@@ -16,10 +14,15 @@ public class RR extends Metric{
 
 	@Override
 	public double measure(List<Integer> desire, List<Double> predict) {
-		Sorter.linkedSort(predict, desire, true);
+		return measure(toIntArray(desire), toDoubleArray(predict));
+	}
+
+	@Override
+	public double measure(int[] desire, double[] predict){
+		int[] order = rank(predict);
 		double rr = 0;
-		for(int idx = 0; idx < desire.size(); idx++)
-			if(desire.get(idx) > 0){
+		for(int idx = 0; idx < desire.length; idx++)
+			if(desire[order[idx]] > 0){
 				rr = (double)1/(idx + 1);
 				break;
 			}
@@ -27,6 +30,11 @@ public class RR extends Metric{
 		return rr;
 	}
 
+	@Override
+	public boolean isRankBased(){
+		return true;
+	}
+
 	@Override
 	public String name() {
 		return "MRR";
@@ -0,0 +1,92 @@
+package com.horsehour.model;
+
+import com.horsehour.datum.Sample;
+
+/**
+ * ļģ:ԳԱϲΪһȨֵ,ֻȨֵӦ,
+ * ԳԱ(Network)ڲвб
+ * <p>predictԭģͬ(ϲȨֵֻı両ۼӵ˳),normPredictԱ׼;
+ * ޸,ɶ߳ͬʱ</p>
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140329
+ */
+public class CompiledEnsemble extends Model{
+	private static final long serialVersionUID = -2170384718254950251L;
+
+	private final int[] fids;//ȨֵӦ
+	private final double[] weights;
+	private final double[] dense;//ܵȨֵ,ϡ
+
+	private final Model[] residual;
+	private final double[] residualWeight;
+
+	/**
+	 * @param dense ϲȨֵ
+	 * @param residual ԳԱ
+	 * @param residualWeight ԳԱȨֵ
+	 */
+	public CompiledEnsemble(double[] dense, Model[] residual, double[] residualWeight){
+		int nnz = 0;
+		for(int i = 0; i < dense.length; i++)
+			if(dense[i] != 0)
+				nnz++;
+
+		fids = new int[nnz];
+		weights = new double[nnz];
+		for(int i = 0, k = 0; i < dense.length; i++)
+			if(dense[i] != 0){
+				fids[k] = i;
+				weights[k++] = dense[i];
+			}
+
+		this.dense = dense.clone();
+		this.residual = residual.clone();
+		this.residualWeight = residualWeight.clone();
+	}
+
+	@Override
+	public double predict(Sample sample){
+		double score = 0;
+		if(sample.isSparse())
+			score = sample.innerProduct(dense);
+		else
+			for(int k = 0; k < fids.length; k++)
+				score += weights[k] * sample.getFeature(fids[k]);
+
+		for(int i = 0; i < residual.length; i++)
+			score += residualWeight[i] * residual[i].predict(sample);
+		return score;
+	}
+
+	/**
+	 * @return ȨֵĿ
+	 */
+	public int getNumFeature(){
+		return fids.length;
+	}
+
+	/**
+	 * @return ԳԱĿ
+	 */
+	public int getNumResidual(){
+		return residual.length;
+	}
+
+	/**
+	 * ģͲ޸,ֱΪʹ
+	 */
+	@Override
+	public CompiledEnsemble snapshot(){
+		return this;
+	}
+
+	public String toString(){
+		StringBuffer sb = new StringBuffer();
+		for(int k = 0; k < fids.length; k++)
+			sb.append(fids[k] + "\t" + weights[k] + "\r\n");
+		for(int i = 0; i < residual.length; i++)
+			sb.append(residual[i].toString() + "\t" + residualWeight[i] + "\r\n");
+		return sb.toString();
+	}
+}
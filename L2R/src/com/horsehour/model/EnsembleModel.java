@@ -1,6 +1,8 @@
 package com.horsehour.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import com.horsehour.datum.Sample;
@@ -149,6 +151,74 @@ public class EnsembleModel extends Model{
 		return score;
 	}
 
+	/**
+	 * ԱĿɵļģ,Աб޸
+	 */
+	@Override
+	public EnsembleModel snapshot(){
+		int sz = size();
+		List<Model> m = new ArrayList<Model>(sz);
+		List<Double> w = new ArrayList<Double>(sz);
+		for(int i = 0; i < sz; i++){
+			m.add(member.get(i).snapshot());
+			w.add(weight.get(i));
+		}
+		return new EnsembleModel(Collections.unmodifiableList(m), Collections.unmodifiableList(w));
+	}
+
+	/**
+	 * 뼯ģ:Ƕ׵ļģչ,FeatureModelLinearModelԱȨֵϲΪһȨֵ,
+	 * Ա(Network)Կʽ,ʱÿĵֻһڻ
+	 * @return compiled ensemble
+	 */
+	public CompiledEnsemble compile(){
+		List<Model> residual = new ArrayList<Model>();
+		List<Double> residualWeight = new ArrayList<Double>();
+		double[] merged = compile(this, 1.0, new double[0], residual, residualWeight);
+
+		int sz = residual.size();
+		double[] w = new double[sz];
+		for(int i = 0; i < sz; i++)
+			w[i] = residualWeight.get(i);
+		return new CompiledEnsemble(merged, residual.toArray(new Model[sz]), w);
+	}
+
+	/**
+	 * ģensĳԱscaleźmerged
+	 * @param ens
+	 * @param scale
+	 * @param merged
+	 * @param residual
+	 * @param residualWeight
+	 * @return ϲȨֵ,Ȳʱ·
+	 */
+	private static double[] compile(EnsembleModel ens, double scale, double[] merged,
+			List<Model> residual, List<Double> residualWeight){
+		int sz = ens.size();
+		for(int i = 0; i < sz; i++){
+			Model model = ens.getModel(i);
+			double alpha = scale * ens.getWeight(i);
+			if(model instanceof FeatureModel){
+				int fid = ((FeatureModel) model).fid;
+				if(fid >= merged.length)
+					merged = Arrays.copyOf(merged, fid + 1);
+				merged[fid] += alpha;
+			}else if(model instanceof LinearModel){
+				double[] w = ((LinearModel) model).weight;
+				if(w.length > merged.length)
+					merged = Arrays.copyOf(merged, w.length);
+				for(int j = 0; j < w.length; j++)
+					merged[j] += alpha * w[j];
+			}else if(model instanceof EnsembleModel)
+				merged = compile((EnsembleModel) model, alpha, merged, residual, residualWeight);
+			else{
+				residual.add(model.snapshot());
+				residualWeight.add(alpha);
+			}
+		}
+		return merged;
+	}
+
 	public String toString(){
 		StringBuffer sb = new StringBuffer();
 		int sz = member.size();
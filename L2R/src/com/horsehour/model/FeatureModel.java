@@ -1,6 +1,7 @@
 package com.horsehour.model;
 
 import com.horsehour.datum.Sample;
+import com.horsehour.datum.SampleSet;
 
 /**
  * ģ
@@ -22,6 +23,19 @@ public class FeatureModel extends Model{
 		return sample.getFeature(fid);
 	}
 
+	/**
+	 * ʽ洢ʱֱӶȡ
+	 */
+	@Override
+	public double[] predict(SampleSet sampleset){
+		return sampleset.getFeatures(fid);
+	}
+
+	@Override
+	public FeatureModel snapshot(){
+		return new FeatureModel(fid);
+	}
+
 	public String toString(){
 		return fid + "";
 	}
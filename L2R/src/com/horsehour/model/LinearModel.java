@@ -32,12 +32,7 @@ public class LinearModel extends Model{
 	 * @return score of sample
 	 */
 	public double predict(Sample sample){
-		double[] feature = sample.getFeatures();
-		double ret = 0;
-		for(int i = 0; i < feature.length; i++)
-			ret += weight[i] * feature[i];
-		
-		return ret;
+		return sample.innerProduct(weight);
 	}
 
 	/**
@@ -57,6 +52,11 @@ public class LinearModel extends Model{
 		weight = Arrays.copyOf(newweight, newweight.length);
 	}
 
+	@Override
+	public LinearModel snapshot(){
+		return new LinearModel(this);
+	}
+
 	public double[] getWeight(){
 		return weight;
 	}
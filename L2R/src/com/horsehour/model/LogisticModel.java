@@ -22,7 +22,7 @@ public class LogisticModel extends Model{
 
 	@Override
 	public double predict(Sample sample) {
-		double predict = MathLib.innerProduct(omega, sample.getFeatures());
+		double predict = sample.innerProduct(omega);
 		predict = (double) (1.0/Math.exp(-predict));
 		return predict;
 	}
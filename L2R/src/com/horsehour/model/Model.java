@@ -7,6 +7,7 @@ import com.horsehour.datum.Sample;
 import com.horsehour.datum.SampleSet;
 import com.horsehour.math.MathLib;
 import com.horsehour.util.DeepCopy;
+import com.horsehour.util.Sorter;
 
 /**
  * ģ-ࡢࡢع
@@ -76,6 +77,31 @@ public abstract class Model implements Serializable{
 		return score;
 	}
 
+	/**
+	 * ֺֻǰkλ,ĵ϶ʱȫ
+	 * @param sampleset
+	 * @param k
+	 * @return ߵmin(k, n)ĵֵ
+	 */
+	public TopK topK(SampleSet sampleset, int k){
+		double[] score = predict(sampleset);
+		int n = score.length;
+		k = Math.max(0, Math.min(k, n));
+
+		int[] order = new int[n];
+		for(int i = 0; i < n; i++)
+			order[i] = i;
+		Sorter.partialSort(score, order, n, k, true);
+
+		int[] index = new int[k];
+		double[] top = new double[k];
+		for(int i = 0; i < k; i++){
+			index[i] = order[i];
+			top[i] = score[order[i]];
+		}
+		return new TopK(index, top);
+	}
+
 	/**
 	 * Ԥⵥ
 	 * @param sample
@@ -86,4 +112,13 @@ public abstract class Model implements Serializable{
 	public Model copy(){
 		return (Model) DeepCopy.copy(this);
 	}
+
+	/**
+	 * ɱֿ,ԭģͲɱ״̬;յpredictֻʹõʱĻ,
+	 * ߳̿Բͬʱ,ԭģͼѵҲӰ
+	 * @return scoring snapshot
+	 */
+	public Model snapshot(){
+		return copy();
+	}
 }
@@ -21,10 +21,9 @@ public class PerceptronModel extends Model{
 
 	@Override
 	public double predict(Sample sample) {
-		double[] feature = sample.getFeatures();
 		double val = 0;
-		for(int i = 0; i < feature.length; i++)
-			val += feature[i] * weight[i];
+		for(int i = 0; i < sample.getDim(); i++)
+			val += sample.getFeature(i) * weight[i];
 		
 		int level = -1;
 		if(val < bais[0])
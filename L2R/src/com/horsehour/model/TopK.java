@@ -0,0 +1,31 @@
+package com.horsehour.model;
+
+/**
+ * ߵkĵ,ֵ,ֵͬʱSorter.indexSortһ
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140330
+ */
+public class TopK {
+	public final int[] index;//ĵڼе
+	public final double[] score;
+
+	public TopK(int[] index, double[] score){
+		this.index = index;
+		this.score = score;
+	}
+
+	/**
+	 * @return ĵĿ,ʵĵĿ
+	 */
+	public int size(){
+		return index.length;
+	}
+
+	public String toString(){
+		StringBuffer sb = new StringBuffer();
+		for(int i = 0; i < index.length; i++)
+			sb.append(index[i] + "\t" + score[i] + "\r\n");
+		return sb.toString();
+	}
+}
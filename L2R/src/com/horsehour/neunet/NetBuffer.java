@@ -0,0 +1,88 @@
+package com.horsehour.neunet;
+
+import java.util.Arrays;
+
+/**
+ * ǰ򴫲뷴򴫲ʹõĻ,ÿ߳ʹöĻɹͬһȨֵ;
+ * ۻģʽ,ȨֵݶȱweightGradientbiasGradient,Network.applyGradientͳһ
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140328
+ */
+public class NetBuffer {
+	double[][] outputs;//outputs[l]: nsize[l],
+	double[][] netInputs;//netInputs[l]: ľ
+	double[][] gradients;//gradients[l]: Local Gradient
+	int capacity = 0;
+	int nSample = 0;//һǰ򴫲ĵĿ
+
+	double[][] weightGradient;
+	double[][] biasGradient;
+
+	/**
+	 * @param nLayer 
+	 */
+	NetBuffer(int nLayer){
+		outputs = new double[nLayer][];
+		netInputs = new double[nLayer][];
+		gradients = new double[nLayer][];
+	}
+
+	/**
+	 * ״ۻݶʱݶȻ,ԤĻط
+	 * @param size Ŀ
+	 * @param bias
+	 */
+	void ensureGradient(int[] size, boolean bias){
+		if(weightGradient != null)
+			return;
+
+		int nLayer = size.length;
+		weightGradient = new double[nLayer - 1][];
+		biasGradient = new double[nLayer - 1][];
+		for(int l = 0; l < nLayer - 1; l++){
+			weightGradient[l] = new double[size[l + 1] * size[l]];
+			if(bias)
+				biasGradient[l] = new double[size[l + 1]];
+		}
+	}
+
+	/**
+	 * ʱչnĵ
+	 * @param size
+	 * @param n
+	 */
+	void ensureCapacity(int[] size, int n){
+		if(outputs[0] != null && n <= capacity)
+			return;
+
+		capacity = Math.max(n, 2 * capacity);
+		for(int l = 0; l < size.length; l++){
+			outputs[l] = new double[capacity * size[l]];
+			if(l > 0){
+				netInputs[l] = new double[capacity * size[l]];
+				gradients[l] = new double[capacity * size[l]];
+			}
+		}
+	}
+
+	/**
+	 * ۻݶ
+	 */
+	public void clearGradient(){
+		if(weightGradient == null)
+			return;
+		for(int l = 0; l < weightGradient.length; l++){
+			Arrays.fill(weightGradient[l], 0);
+			if(biasGradient[l] != null)
+				Arrays.fill(biasGradient[l], 0);
+		}
+	}
+
+	/**
+	 * @return һǰ򴫲ĵĿ
+	 */
+	public int getNumSample(){
+		return nSample;
+	}
+}
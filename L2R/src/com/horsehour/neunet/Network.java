@@ -1,39 +1,63 @@
 package com.horsehour.neunet;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
-import com.horsehour.datum.DataSet;
 import com.horsehour.datum.Sample;
 import com.horsehour.datum.SampleSet;
+import com.horsehour.function.ActivationFunction;
+import com.horsehour.function.IdentityFunction;
+import com.horsehour.function.LogisticFunction;
 import com.horsehour.math.MathLib;
 import com.horsehour.model.Model;
-import com.horsehour.neunet.neuron.Neuron;
 
 /**
+ * ڳܾǰ:֮ȨֵΪȵľ,
+ * ԼΪ,һȫĵǰ򴫲뷴򴫲
+ * <p>weights[l]Ϊsize[l + 1]size[l]еľ,rǵl + 1rȨֵ;
+ * ʹbiasʱ,biasWeights[l]l + 1bias֮Ȩֵ</p>
  * @author Chunheng Jiang
- * @version 3.0
- * @see Simon Haykin, Neural Networks and Learning Machines, 3rd edition, p122-38 
+ * @version 4.0
+ * @see Simon Haykin, Neural Networks and Learning Machines, 3rd edition, p122-38
  * @since 20131216
  */
 public class Network extends Model{
 	private static final long serialVersionUID = 3033820560795032478L;
-	
-	public List<Layer> layers;
-	public List<List<Double>> netWeights;
+
 	public int numLayer = 2;//At least(㡢)
 
+	protected int[] size;//Ŀ,㲻bias
+	protected double[][] weights;
+	protected double[][] biasWeights;
+
 	protected NetUser user;
 	protected boolean bias = false;
 	protected int numOutputNeuron = 1;
+	protected float learningRate = 0.00005f;
+
+	private transient volatile ActivationFunction activFunc;
+	private transient NetBuffer buffer;//߳ѵԤʹõĻ
 
+	/**
+	 * ṹ뵱ǰȨֵ
+	 * @param net
+	 */
 	public Network(Network net){
-		layers = net.layers;
 		numLayer = net.numLayer;
+		size = net.size;
 		numOutputNeuron = net.numOutputNeuron;
 		bias = net.bias;
 		user = net.user;
-		netWeights = net.netWeights;
+		learningRate = net.learningRate;
+
+		weights = new double[numLayer - 1][];
+		biasWeights = new double[numLayer - 1][];
+		for(int l = 0; l < numLayer - 1; l++){
+			weights[l] = Arrays.copyOf(net.weights[l], net.weights[l].length);
+			if(bias)
+				biasWeights[l] = Arrays.copyOf(net.biasWeights[l], net.biasWeights[l].length);
+		}
 	}
 
 	/**
@@ -46,14 +70,7 @@ public class Network extends Model{
 	public Network(NetUser user, boolean bias, int nInput, int nOutput, int... nHidden){
 		this.user = user;
 		this.bias = bias;
-
 		this.numOutputNeuron = nOutput;
-		layers = new ArrayList<Layer>();
-		
-		if(bias)
-			nInput += 1;//plus bias
-
-		layers.add(new Layer(nInput, user));//input layer
 
 		int nHiddenLayer;
 		if(nHidden == null)
@@ -61,65 +78,193 @@ public class Network extends Model{
 		else
 			nHiddenLayer = nHidden.length;
 		numLayer = nHiddenLayer + 2;
-		
+
+		size = new int[numLayer];
+		size[0] = nInput;//input layer
 		for(int i = 0; i < nHiddenLayer; i++)
-			layers.add(new Layer(nHidden[i], user));//hidden layer
-				
-		layers.add(new Layer(nOutput, user));//output layer
-		
-		connectNet();
+			size[i + 1] = nHidden[i];//hidden layer
+		size[numLayer - 1] = nOutput;//output layer
+
+		weights = new double[numLayer - 1][];
+		biasWeights = new double[numLayer - 1][];
+		Random rand = new Random();
+		for(int l = 0; l < numLayer - 1; l++){
+			weights[l] = new double[size[l + 1] * size[l]];
+			initWeight(weights[l], rand);
+			if(bias){
+				biasWeights[l] = new double[size[l + 1]];
+				initWeight(biasWeights[l], rand);
+			}
+		}
+	}
+
+	/**
+	 * ʼȨ
+	 * @param w
+	 * @param rand
+	 */
+	private static void initWeight(double[] w, Random rand){
+		for(int i = 0; i < w.length; i++)
+			w[i] = (rand.nextInt(2) == 0 ? 1 : -1) * rand.nextFloat() / 10;
 	}
 
 	/**
-	 * 
+	 * ʹõĴ̼,ListNetʹúȺ,ʹLogistic
+	 * @return activation function
 	 */
-	private void connectNet(){
-		Layer inputLayer = layers.get(0);
-		inputLayer.connectTo(layers.get(1));//(bias,)ز
-		
-		if(bias){
-			Neuron biasNeuron = inputLayer.getNeuron(inputLayer.size() - 1);
-			for(int id = 1; id < numLayer - 1; id++)
-				biasNeuron.connectTo(layers.get(id + 1));//bias neuron̸neuron
+	protected ActivationFunction getActivation(){
+		if(activFunc == null){
+			if(user == NetUser.ListNet)
+				activFunc = new IdentityFunction();
+			else
+				activFunc = new LogisticFunction();
 		}
-		
-		for(int id = 1; id < numLayer - 1; id++){
-			Layer layer = layers.get(id);
-			layer.connectTo(layers.get(id + 1));//ǰһһ
+		return activFunc;
+	}
+
+	/**
+	 * @return 뵱ǰṹƥ»
+	 */
+	public NetBuffer newBuffer(){
+		return new NetBuffer(numLayer);
+	}
+
+	/**
+	 * ʵȫĵͬʱǰ
+	 * @param sampleset
+	 * @return ĵڵһϵ
+	 */
+	public double[] forwardProp(SampleSet sampleset){
+		if(buffer == null)
+			buffer = newBuffer();
+		return forwardProp(sampleset, buffer);
+	}
+
+	/**
+	 * ʹָǰ,ֻȡȨֵ,ͬ߳ʹøԵĻʱԲ
+	 * @param sampleset
+	 * @param buf
+	 * @return ĵڵһϵ
+	 */
+	public double[] forwardProp(SampleSet sampleset, NetBuffer buf){
+		int n = sampleset.size();
+		buf.ensureCapacity(size, n);
+		buf.nSample = n;
+
+		sampleset.getFeatureMatrix(size[0], buf.outputs[0]);//Feed data
+
+		ActivationFunction func = getActivation();
+		for(int l = 0; l < numLayer - 1; l++){
+			int nIn = size[l], nOut = size[l + 1];
+			double[] net = buf.netInputs[l + 1], out = buf.outputs[l + 1];
+			MathLib.multiplyTransposed(buf.outputs[l], 0, n, weights[l], nOut, nIn, net);
+
+			for(int i = 0, pos = 0; i < n; i++)
+				for(int r = 0; r < nOut; r++, pos++){
+					if(bias)
+						net[pos] += biasWeights[l][r];
+					out[pos] = func.calc(net[pos]);
+				}
 		}
+		return getOutputs(buf, 0);
+	}
+
+	/**
+	 * ʧĵ򴫲,Ȩ
+	 * @param outputGradient nnumOutputNeuron,Ӧһǰ򴫲ĵ
+	 */
+	public void backwardProp(double[] outputGradient){
+		backwardProp(outputGradient, buffer, false);
 	}
-	
+
 	/**
-	 * Feed,ǰ
-	 * @param sample
+	 * ʹָ򴫲
+	 * @param outputGradient
+	 * @param buf һǰ򴫲ʹõĻ
+	 * @param accumulate Ϊtrueʱֻݶۼӵbuf,ֱӸȨ
 	 */
-	public void forwardProp(Sample sample){
-		//Feed data
-		Layer inputLayer = layers.get(0);
-		int numBias = bias ? 1 : 0;
+	public void backwardProp(double[] outputGradient, NetBuffer buf, boolean accumulate){
+		if(accumulate)
+			buf.ensureGradient(size, bias);
+		int n = buf.nSample;
+		ActivationFunction func = getActivation();
 
-		List<Neuron> neurons = inputLayer.getNeurons();
-		for(int idx = 0; idx < neurons.size() - numBias; idx++)
-			neurons.get(idx).addOutput(sample.getFeature(idx));
+		int top = numLayer - 1;
+		double[] delta = buf.gradients[top];
+		for(int pos = 0, len = n * size[top]; pos < len; pos++)
+			delta[pos] = outputGradient[pos] * func.calcDerivation(buf.netInputs[top][pos]);
 
-		if(bias)
-			neurons.get(neurons.size() - 1).addOutput(1.0f);//for bias
+		for(int l = top - 1; l >= 0; l--){
+			int nIn = size[l], nOut = size[l + 1];
+			double[] w = weights[l], x = buf.outputs[l];
+			delta = buf.gradients[l + 1];
 
-		//Propagate data
-		for(int idx = 1; idx < numLayer; idx++)
-			layers.get(idx).propagate();
+			if(l > 0){//ǰһLocal GradientڸǰȨֵ
+				double[] prev = buf.gradients[l];
+				Arrays.fill(prev, 0, n * nIn, 0);
+				for(int i = 0; i < n; i++)
+					for(int r = 0; r < nOut; r++){
+						double d = delta[i * nOut + r];
+						if(d == 0)
+							continue;
+						for(int c = 0, wp = r * nIn, pp = i * nIn; c < nIn; c++)
+							prev[pp + c] += w[wp + c] * d;
+					}
+				for(int pos = 0, len = n * nIn; pos < len; pos++)
+					prev[pos] *= func.calcDerivation(buf.netInputs[l][pos]);
+			}
+
+			double[] gw = accumulate ? buf.weightGradient[l] : w;
+			double[] gb = accumulate ? buf.biasGradient[l] : biasWeights[l];
+			double rate = accumulate ? -1 : learningRate;
+			for(int i = 0; i < n; i++)
+				for(int r = 0; r < nOut; r++){
+					double d = rate * delta[i * nOut + r];
+					if(d == 0)
+						continue;
+					for(int c = 0, wp = r * nIn, xp = i * nIn; c < nIn; c++)
+						gw[wp + c] -= d * x[xp + c];
+					if(bias)
+						gb[r] -= d;
+				}
+		}
+	}
+
+	/**
+	 * bufۻݶȸȨ,ۻݶ
+	 * @param buf
+	 */
+	public void applyGradient(NetBuffer buf){
+		if(buf.weightGradient == null)
+			return;
+		for(int l = 0; l < numLayer - 1; l++){
+			double[] w = weights[l], g = buf.weightGradient[l];
+			for(int i = 0; i < w.length; i++)
+				w[i] -= learningRate * g[i];
+			if(bias){
+				double[] b = biasWeights[l], gb = buf.biasGradient[l];
+				for(int i = 0; i < b.length; i++)
+					b[i] -= learningRate * gb[i];
+			}
+		}
+		buf.clearGradient();
 	}
-	
+
 	/**
-	 * нбеΪѭ׼
-	 * ѵʹʱһҪڲʹʱ,Ȼڴ潫Ѹ
+	 * @param buf
+	 * @param r
+	 * @return һǰ򴫲иĵڵrϵ
 	 */
-	public void clearOutputs(){
-		for(Layer layer : layers)
-			for(Neuron neuron : layer.getNeurons())
-				neuron.clearOutputs();
+	public double[] getOutputs(NetBuffer buf, int r){
+		int nOut = numOutputNeuron;
+		int n = buf.nSample;
+		double[] out = buf.outputs[numLayer - 1];
+		double[] ret = new double[n];
+		for(int i = 0; i < n; i++)
+			ret[i] = out[i * nOut + r];
+		return ret;
 	}
-	
+
 	/**
 	 * ȡĿ
 	 * @return numOutputNeuron
@@ -127,114 +272,105 @@ public class Network extends Model{
 	public int getNumOutputNeuron(){
 		return numOutputNeuron;
 	}
-	
-	/**
-	 * ָidlayer
-	 * @param layerId
-	 * @return layer at layerId
-	 */
-	public Layer getLayer(int layerId){
-		return layers.get(layerId);
-	}
-	
+
 	/**
 	 * Learning Rate
 	 * @param lr
 	 */
 	public void setLearningRate(float lr) {
-		for(Layer layer : layers)
-			for(Neuron neuron : layer.getNeurons())
-				neuron.setLearningRate(lr);
+		learningRate = lr;
 	}
-	
+
 	/**
 	 * ȡԪLearning Rate
 	 * @return learning rate of neuron
 	 */
 	public float getLearningRate() {
-		return layers.get(0).getNeuron(0).getLearningRate(); 
-	}
-	
-	/**
-	 * 浱ǰȨֵ: ÿһ㱣浽һList
-	 */
-	public void updateWeight(){
-		netWeights = new ArrayList<List<Double>>();
-		for(int idx = 0; idx < numLayer - 1; idx ++){
-			List<Double> weights = new ArrayList<Double>();
-			
-			for(Neuron neuron : layers.get(idx).getNeurons()){
-				List<Connector> outCon = neuron.getOutputConnectors();
-				for(int id = 0; id < outCon.size(); id++)
-					weights.add(outCon.get(id).getWeight());
-			}
-			netWeights.add(weights);
-		}
+		return learningRate;
 	}
 
 	/**
-	 * netWeightsеȨ¸
+	 * һΪbiasǼĿ,ÿб֮Ȩֵ,
+	 * ʹbiasʱbiasȨֵڸĩβ
 	 */
-	public void reweight(){
-		for(int idx = 0; idx < numLayer - 1; idx ++){
-			List<Double> weights = netWeights.get(idx);
-			int count = 0;			
-			for(Neuron neuron : layers.get(idx).getNeurons()){
-				for(int id = 0, sz = neuron.getOutputConnectors().size(); id < sz; id++){
-					neuron.getOutputConnectors().get(id).setWeight(weights.get(count));
-					count++;
-				}
-			}
-		}
-	}
-
 	@Override
 	public String toString(){
 		StringBuffer sb = new StringBuffer();
-		for(int i = 0; i < numLayer - 1; i ++){
-			List<Double> weights = netWeights.get(i);
-			for(double weight : weights)
+		sb.append(bias ? 1 : 0);
+		for(int l = 0; l < numLayer; l++)
+			sb.append("\t" + size[l]);
+		sb.append("\r\n");
+
+		for(int l = 0; l < numLayer - 1; l++){
+			for(double weight : weights[l])
 				sb.append(weight + "\t");
+			if(bias)
+				for(double weight : biasWeights[l])
+					sb.append(weight + "\t");
 			sb.append("\r\n");
 		}
 		return sb.toString();
 	}
 
 	/**
-	 * Ԥݼ
-	 * @param dataset
-	 * @return Ԥֵ
+	 * toStringĸؽ
+	 * @param user
+	 * @param lines
+	 * @return network
 	 */
-	public double[][] predict(DataSet dataset){
-		reweight();
-		return super.predict(dataset);
+	public static Network load(NetUser user, List<double[]> lines){
+		double[] header = lines.get(0);
+		int nLayer = header.length - 1;
+		int[] nHidden = new int[nLayer - 2];
+		for(int l = 0; l < nLayer - 2; l++)
+			nHidden[l] = (int) header[l + 2];
+
+		Network net = new Network(user, header[0] == 1, (int) header[1], (int) header[nLayer], nHidden);
+		for(int l = 0; l < nLayer - 1; l++){
+			double[] line = lines.get(l + 1);
+			int len = net.weights[l].length;
+			System.arraycopy(line, 0, net.weights[l], 0, len);
+			if(net.bias)
+				System.arraycopy(line, len, net.biasWeights[l], 0, net.biasWeights[l].length);
+		}
+		return net;
 	}
 
 	/**
+	 * ʹñε÷Ļǰ,ɶ߳ͬʱ
 	 * @param sampleset
 	 * @return Ԥֵ
 	 */
+	@Override
 	public double[] predict(SampleSet sampleset){
-		clearOutputs();
-		Sample sample;
-		for(int id = 0; id < sampleset.size(); id++){
-			sample = sampleset.getSample(id);
-			forwardProp(sample);
-		}
-		List<Double> predict;
-		Layer outputLayer;
-		Neuron outputNeuron;
-
-		outputLayer = layers.get(layers.size() - 1);
-		outputNeuron = outputLayer.getNeuron(0);
-
-		predict = outputNeuron.getOutputList();
+		return forwardProp(sampleset, newBuffer());
+	}
 
-		return MathLib.listToArray(predict);
+	@Override
+	public Network snapshot(){
+		return new Network(this);
 	}
 
 	@Override
 	public double predict(Sample sample) {
-		return 0;
+		ActivationFunction func = getActivation();
+		double[] input = new double[size[0]];
+		for(int c = 0, len = Math.min(size[0], sample.getDim()); c < len; c++)
+			input[c] = sample.getFeature(c);
+
+		for(int l = 0; l < numLayer - 1; l++){
+			int nIn = size[l], nOut = size[l + 1];
+			double[] output = new double[nOut];
+			for(int r = 0; r < nOut; r++){
+				double net = 0;
+				for(int c = 0; c < nIn; c++)
+					net += input[c] * weights[l][r * nIn + c];
+				if(bias)
+					net += biasWeights[l][r];
+				output[r] = func.calc(net);
+			}
+			input = output;
+		}
+		return input[0];
 	}
-}
\ No newline at end of file
+}
@@ -1,140 +0,0 @@
-package com.horsehour.neunet.neuron;
-
-import java.util.ArrayList;
-import java.util.List;
-
-import com.horsehour.function.ActivationFunction;
-import com.horsehour.function.LogisticFunction;
-import com.horsehour.neunet.Connector;
-import com.horsehour.neunet.Layer;
-
-
-
-public class Neuron {
-	protected ActivationFunction activFunc;
-
-	protected List<Connector> inputConnectors;
-	protected List<Connector> outputConnectors;
-	
-	protected List<Double> outputs;
-	
-	protected double netInput = 0.0;
-	
-	private double localGradient = 0.0;
-	
-	protected float learningRate = 0.00005f;
-//	protected float momentum = 0.0;
-	
-	public Neuron(){
-		activFunc = new LogisticFunction();
-		
-		inputConnectors = new ArrayList<Connector>();
-		outputConnectors = new ArrayList<Connector>();
-		
-		outputs = new ArrayList<Double>();
-	}
-	
-	//ĿLayer
-	public void connectTo(Layer destLayer){
-		for(Neuron neuron : destLayer.getNeurons())
-			new Connector(this, neuron);
-	}
-	
-	//ǰź
-	public void propagate(){
-		calcNetInput();
-		calcOutput();
-	}
-	
-	//TODO:NeurophܶWeightedSum
-	//㾻/Local Field-ԴNeuronȨ
-	private void calcNetInput(){
-		netInput = 0.0f;
-		Neuron srcNeuron = null;
-		for(Connector connector : inputConnectors){
-			srcNeuron = connector.getSrcNeuron();
-			netInput += srcNeuron.getOutput() * connector.getWeight();
-		}
-	}
-	
-	//ݾ/Local Fieldڵ-ɴ̼ת
-	public void calcOutput(){
-		double output = activFunc.calc(netInput);
-		addOutput(output);
-	}
-	
-	//Make sure the outputs has no content
-	public void clearOutputs(){
-		outputs = new ArrayList<Double>();
-	}
-	
-	//Ȩ
-	public void updateWeight() {
-		double weight = 0.0f, input = 0.0f;
-		for(Connector inLink : inputConnectors){
-			weight = inLink.getWeight();
-			input = inLink.getSrcNeuron().getOutput();
-			weight -= learningRate * localGradient * input;
-			inLink.setWeight(weight);
-		}
-	}
-	
-	//Local Gradientֵ-ҪṩʵֵBackward Propǰ
-	public void calcOutputLocalGradient(int desiredOutput) {
-		double output = outputs.get(outputs.size() - 1);
-		localGradient = (output - desiredOutput) * activFunc.calcDerivation(netInput); 
-	}
-	
-	//ؽLocal Gradientֵ,ǰ֪ǰһLocal Gradientֵ
-	public void calcLocalGradient() {
-		float weightSum = 0.0f;
-		for(Connector outLink : outputConnectors)
-			weightSum += outLink.getDestNeuron().getLocalGradient() * outLink.getWeight();
-		
-		localGradient = activFunc.calcDerivation(netInput) * weightSum;
-	}
-	
-	//ɱֵ
-	public List<Double> getOutputList(){
-		return outputs;
-	}
-	
-	//ɱĵidxֵ
-	public double getOutput(int idx){
-		return outputs.get(idx);
-	}
-	
-	//ɱģҲoutputsһֵ
-	public double getOutput(){
-		return outputs.get(outputs.size()-1);
-	}
-	
-	//бֵ-Mainly for Input Neurons
-	public void addOutput(double output){
-		outputs.add(output);
-	}
-	
-	//ȡñȫ
-	public List<Connector> getInputConnectors(){
-		return inputConnectors;
-	}
-	
-	//ȡñȫ
-	public List<Connector> getOutputConnectors(){
-		return outputConnectors;
-	}
-	
-	//ȡýLocal Gradient
-	private double getLocalGradient() {
-		return localGradient;
-	}
-	
-	//ѧϰ
-	public void setLearningRate(float lr){
-		this.learningRate = lr;
-	}
-	
-	public float getLearningRate(){
-		return learningRate;
-	}
-}
\ No newline at end of file
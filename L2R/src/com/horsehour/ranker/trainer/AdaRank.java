@@ -10,6 +10,7 @@ import com.horsehour.math.MathLib;
 import com.horsehour.model.EnsembleModel;
 import com.horsehour.model.FeatureModel;
 import com.horsehour.util.FileManager;
+import com.horsehour.util.Sorter;
 
 /**
  * @author Chunheng Jiang
@@ -26,6 +27,14 @@ public class AdaRank extends RankTrainer{
 	
 	public List<double[]> currentPredict;//ģѵϵԤ
 
+	protected double[] rawWeight;//δһļȨֵ
+	protected double[] weightedPerf;//rawWeightȨ,Ȩֵı仯
+	protected int[][] ranking;//ģڸϵ,жǷ仯
+	private int nRound = 0;
+
+	private static final int REFRESH = 64;//ÿ¼weightedPerf,ۻ
+	private static final double TOLERANCE = 1e-9;
+
 	public AdaRank(){}
 
 	public void init(){
@@ -40,6 +49,19 @@ public class AdaRank extends RankTrainer{
 		currentPredict = new ArrayList<double[]>();
 
 		buildPerformMatrix();
+
+		rawWeight = new double[sz];
+		Arrays.fill(rawWeight, 1);
+		weightedPerf = new double[trainset.getDim()];
+		refreshWeightedPerf();
+
+		ranking = new int[sz][];
+		for(int qid = 0; qid < sz; qid++){
+			ranking[qid] = rank(currentPredict.get(qid));
+			perfPlain[qid] = trainMetric.measure(trainset.getSampleSet(qid).getLabelStats(),
+					currentPredict.get(qid));
+		}
+		nRound = 0;
 	}
 
 	/**
@@ -50,56 +72,71 @@ public class AdaRank extends RankTrainer{
 	private void buildPerformMatrix() {
 		int dim = trainset.getDim();
 		int sz = trainset.size();
-		
-		perfMatrix = new double[dim][sz];
-		SampleSet sampleset;
 
-		//queries
-		for(int qid = 0; qid < sz; qid++){
-			sampleset = trainset.getSampleSet(qid);
-			currentPredict.add(new double[sampleset.size()]);
+		for(int qid = 0; qid < sz; qid++)
+			currentPredict.add(new double[trainset.getSampleSet(qid).size()]);
 
-			//Feature Ranker
-			for(int fid = 0; fid < dim; fid++)
-				perfMatrix[fid][qid] = trainMetric.measure(
-						sampleset.getLabelList(), 
-						sampleset.getFeatureList(fid));
-		}
+		//Feature Ranker
+		List<FeatureModel> rankers = new ArrayList<FeatureModel>(dim);
+		for(int fid = 0; fid < dim; fid++)
+			rankers.add(new FeatureModel(fid));
+		perfMatrix = buildPerfMatrix(rankers);
 	}
 
+	/**
+	 * ģڸϵԤԭۼ³ԱԤ,¶з仯ļ
+	 */
 	@Override
 	protected void learn() {
 		weakLearn();
 		weightWeak();
 
 		int idx = ((EnsembleModel) plainModel).size();
-		FeatureModel weak = (FeatureModel) ((EnsembleModel) plainModel).getModel(idx - 1);
+		int fid = ((FeatureModel) ((EnsembleModel) plainModel).getModel(idx - 1)).fid;
 		double alpha = ((EnsembleModel) plainModel).getWeight(idx - 1);
 
+		boolean rankBased = trainMetric.isRankBased();
 		SampleSet sampleset;
 		for(int i = 0; i < trainset.size(); i++){
 			sampleset = trainset.getSampleSet(i);
-			double[] predict = MathLib.linearCombinate(currentPredict.get(i), 1.0,
-					weak.predict(sampleset), alpha);
-
-			currentPredict.set(i, predict);
-			perfPlain[i] = trainMetric.measure(sampleset.getLabels(), predict);
+			double[] predict = currentPredict.get(i);
+			for(int j = 0; j < predict.length; j++)
+				predict[j] += sampleset.getSample(j).getFeature(fid) * alpha;
+
+			if(rankBased){
+				if(isRanked(predict, ranking[i]))
+					continue;
+				ranking[i] = rank(predict);
+			}
+			perfPlain[i] = trainMetric.measure(sampleset.getLabelStats(), predict);
 		}
 
 		reweightQuery();
 	}
 
 	/**
-	 * ڼʵĸʷֲperformance matrixѰweak ranker
+	 * ڼʵĸʷֲperformance matrixѰweak ranker,
+	 * άweightedPerfɸѡѡ,ٰԭʼʽȷȽ,
+	 * һڻһ
 	 */
 	public void weakLearn(){
+		int dim = trainset.getDim();
+		if(++nRound % REFRESH == 0)
+			refreshWeightedPerf();
+
+		double top = Double.NEGATIVE_INFINITY;
+		for(int i = 0; i < dim; i++)
+			if(weightedPerf[i] > top)
+				top = weightedPerf[i];
+		double bound = top - TOLERANCE * (Math.abs(top) + 1);
+
 		double maxperf = 0;
 		int rid = -1;
-
-		int dim = trainset.getDim(); 
 		for(int i = 0; i < dim; i++){
-			double perf = MathLib.innerProduct(queryWeight, perfMatrix[i]);
+			if(weightedPerf[i] < bound)
+				continue;
 
+			double perf = MathLib.innerProduct(queryWeight, perfMatrix[i]);
 			if(perf > maxperf){
 				maxperf = perf;
 				rid = i;
@@ -109,6 +146,43 @@ public class AdaRank extends RankTrainer{
 		((EnsembleModel) plainModel).addMember(new FeatureModel(rid), (float) maxperf);
 	}
 
+	/**
+	 * ǰrawWeight¼ȫļȨ
+	 */
+	private void refreshWeightedPerf(){
+		for(int i = 0; i < weightedPerf.length; i++)
+			weightedPerf[i] = MathLib.innerProduct(rawWeight, perfMatrix[i]);
+	}
+
+	/**
+	 * Ԥֵĵ,ʱ,Metricһ
+	 * @param predict
+	 * @return ranking of documents
+	 */
+	private static int[] rank(double[] predict){
+		int n = predict.length;
+		int[] order = new int[n];
+		for(int i = 0; i < n; i++)
+			order[i] = i;
+		Sorter.indexSort(predict, order, n, true);
+		return order;
+	}
+
+	/**
+	 * @param predict
+	 * @param order
+	 * @return predictorderǷԱ
+	 */
+	private static boolean isRanked(double[] predict, int[] order){
+		for(int i = 1; i < order.length; i++){
+			int a = order[i - 1], b = order[i];
+			int cmp = Double.compare(predict[a], predict[b]);
+			if(cmp < 0 || (cmp == 0 && a < b))
+				return false;
+		}
+		return true;
+	}
+
 	/**
 	 * ȷWeak RankerȨֵ
 	 */
@@ -127,9 +201,17 @@ public class AdaRank extends RankTrainer{
 		double norm = 0;
 		int len = perfPlain.length;
 
+		int dim = weightedPerf.length;
 		for(int i = 0; i < len; i++){
 			queryWeight[i] = Math.exp(-perfPlain[i]);
 			norm += queryWeight[i] ;
+
+			double delta = queryWeight[i] - rawWeight[i];
+			if(delta == 0)
+				continue;
+			for(int fid = 0; fid < dim; fid++)
+				weightedPerf[fid] += perfMatrix[fid][i] * delta;
+			rawWeight[i] = queryWeight[i];
 		}
 
 		for(int i = 0; i < len; i++)
@@ -96,22 +96,10 @@ public class BoostEnsemble extends RankTrainer{
 	 * ÿһģڸϵ
 	 */
 	protected void buildPerfMatrix(){
-		int m = trainset.size();
-		int n = candidatePool.size();
-		perfMatrix = new double[n][m];
-		
-		SampleSet sampleset;
-		LinearModel weak;
-		for(int qid = 0; qid < m; qid++){
-			sampleset = trainset.getSampleSet(qid);
-			currentPredict.add(new double[sampleset.size()]);
-
-			for(int idx = 0; idx < n; idx++){
-				weak = candidatePool.get(idx);
-				perfMatrix[idx][qid] = trainMetric.measure(sampleset.getLabels(), 
-						weak.predict(sampleset));
-			}
-		}
+		for(int qid = 0; qid < trainset.size(); qid++)
+			currentPredict.add(new double[trainset.getSampleSet(qid).size()]);
+
+		perfMatrix = buildPerfMatrix(candidatePool);
 	}
 
 	/**
@@ -264,7 +252,7 @@ public class BoostEnsemble extends RankTrainer{
 					weak.predict(sampleset), alpha);
 
 			currentPredict.set(i, predict);
-			perfPlain[i] = trainMetric.measure(sampleset.getLabels(), predict);
+			perfPlain[i] = trainMetric.measure(sampleset.getLabelStats(), predict);
 		}
 
 		reweightQuery();
@@ -128,22 +128,10 @@ public class DEARank extends RankTrainer{
 	 * ÿһcandidateڸϵ
 	 */
 	protected void buildPerfMatrix(){
-		int m = trainset.size();
-		int n = candidatePool.size();
-		perfMatrix = new double[n][m];
-		
-		SampleSet sampleset;
-		LinearModel weak;
-		for(int qid = 0; qid < m; qid++){
-			sampleset = trainset.getSampleSet(qid);
-			currentPredict.add(new double[sampleset.size()]);
-
-			for(int idx = 0; idx < n; idx++){
-				weak = candidatePool.get(idx);
-				perfMatrix[idx][qid] = trainMetric.measure(sampleset.getLabels(), 
-						weak.predict(sampleset));
-			}
-		}
+		for(int qid = 0; qid < trainset.size(); qid++)
+			currentPredict.add(new double[trainset.getSampleSet(qid).size()]);
+
+		perfMatrix = buildPerfMatrix(candidatePool);
 	}
 
 	/**
@@ -236,7 +224,7 @@ public class DEARank extends RankTrainer{
 			for(int i = 0; i < n; i++){
 				sampleset = trainset.getSampleSet(i);
 				double[] predict = plainModel.predict(sampleset);
-				double score = trainMetric.measure(sampleset.getLabels(), predict);
+				double score = trainMetric.measure(sampleset.getLabelStats(), predict);
 				queryWeight[i] = Math.exp(-score);
 				trainscore += score;
 				norm += queryWeight[i];
@@ -297,7 +285,7 @@ public class DEARank extends RankTrainer{
 					weak.predict(sampleset), alpha);
 
 			currentPredict.set(i, predict);
-			perfPlain[i] = trainMetric.measure(sampleset.getLabels(), predict);
+			perfPlain[i] = trainMetric.measure(sampleset.getLabelStats(), predict);
 		}
 
 		reweightQuery();
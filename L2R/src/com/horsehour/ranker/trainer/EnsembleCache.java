@@ -0,0 +1,90 @@
+package com.horsehour.ranker.trainer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.horsehour.datum.DataSet;
+import com.horsehour.model.EnsembleModel;
+import com.horsehour.model.Model;
+
+/**
+ * ģݼϵԤ⻺,֤
+ * <p>baseǰnBaseԱۼӷֵ;ÿԤʱ,ϴȳԱȨֵδıǰ׺
+ * base,ĳԱ(ֻͨб¼ȨֵĳԱ)¼㡣ۼ˳
+ * EnsembleModel.predictͬ,ȫһ;Աģͼ뼯ɺԭ޸</p>
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140330
+ */
+class EnsembleCache {
+	private DataSet dataset;
+	private double[][] base;
+	private double[][] score;
+	private int nBase = 0;
+
+	private List<Model> member = new ArrayList<Model>();
+	private List<Double> weight = new ArrayList<Double>();
+
+	/**
+	 * @param ens
+	 * @param data
+	 * @return ʵԤֵ,´εǰЧ
+	 */
+	double[][] predict(EnsembleModel ens, DataSet data){
+		if(data != dataset)
+			reset(data);
+
+		int sz = (ens.member == null) ? 0 : ens.size();
+		int prefix = 0;
+		while(prefix < sz && prefix < member.size() && member.get(prefix) == ens.getModel(prefix)
+				&& weight.get(prefix) == ens.getWeight(prefix))
+			prefix++;
+
+		int m = dataset.size();
+		if(prefix < nBase){
+			for(int q = 0; q < m; q++)
+				Arrays.fill(base[q], 0);
+			nBase = 0;
+		}
+
+		for(; nBase < prefix; nBase++)
+			accumulate(base, ens.getModel(nBase), ens.getWeight(nBase));
+
+		for(int q = 0; q < m; q++)
+			System.arraycopy(base[q], 0, score[q], 0, base[q].length);
+		for(int i = prefix; i < sz; i++)
+			accumulate(score, ens.getModel(i), ens.getWeight(i));
+
+		member.clear();
+		weight.clear();
+		for(int i = 0; i < sz; i++){
+			member.add(ens.getModel(i));
+			weight.add(ens.getWeight(i));
+		}
+		return score;
+	}
+
+	private void accumulate(double[][] target, Model model, double alpha){
+		for(int q = 0; q < target.length; q++){
+			double[] predict = model.predict(dataset.getSampleSet(q));
+			double[] s = target[q];
+			for(int j = 0; j < s.length; j++)
+				s[j] += alpha * predict[j];
+		}
+	}
+
+	private void reset(DataSet data){
+		dataset = data;
+		int m = data.size();
+		base = new double[m][];
+		score = new double[m][];
+		for(int q = 0; q < m; q++){
+			base[q] = new double[data.getSampleSet(q).size()];
+			score[q] = new double[base[q].length];
+		}
+		nBase = 0;
+		member.clear();
+		weight.clear();
+	}
+}
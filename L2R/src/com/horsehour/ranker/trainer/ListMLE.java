@@ -1,17 +1,12 @@
 package com.horsehour.ranker.trainer;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import com.horsehour.datum.DataManager;
 import com.horsehour.datum.SampleSet;
 import com.horsehour.math.MathLib;
 import com.horsehour.metric.CrossEntropy;
 import com.horsehour.model.Model;
-import com.horsehour.neunet.Layer;
 import com.horsehour.neunet.NetUser;
 import com.horsehour.neunet.Network;
-import com.horsehour.neunet.neuron.ListMLENeuron;
 import com.horsehour.util.FileManager;
 
 /**
@@ -27,10 +22,8 @@ import com.horsehour.util.FileManager;
  * ICML '08: Proceedings of the 25th International Conference on Machine learning.
  * @since 20121126
  */
-public class ListMLE extends RankTrainer {
-	public Network net;
+public class ListMLE extends NetTrainer {
 	public int topk = 5;
-	public int[] nHidden;//زڵĿ
 	public float learningRate = 0.0005f;
 	
 	public ListMLE(){}
@@ -38,86 +31,74 @@ public class ListMLE extends RankTrainer {
 	@Override
 	public void init() {
 		net = new Network(NetUser.ListMLE, false, trainset.getDim(), 1, nHidden);
+		plainModel = net;
 		net.setLearningRate(learningRate);
 
 		valiMetric = new CrossEntropy();
 	}
 
 	@Override
-	protected void learn() {
-		Layer outputLayer = net.getLayer(net.layers.size() - 1);
-		ListMLENeuron outputNeuron = (ListMLENeuron)outputLayer.getNeuron(0);
-		int[] rank;//б
+	protected double[] calcGradient(int qid, SampleSet sampleSet, double[] predict){
+		int[] rank = MathLib.getRank(sampleSet.getLabels(), false);//б
+		return calcGradient(predict, rank);
+	}
+
+	/**
+	 * ǰtopkλõȻʧԸĵĵ:λiϵʧΪ
+	 * -s[rank[i]] + log_{l>=i} exp(s[rank[l]]),׺ʱ
+	 * @param predict
+	 * @param rank
+	 * @return gradient of each document
+	 */
+	private double[] calcGradient(double[] predict, int[] rank){
+		int len = predict.length;
+		int k = (len > topk) ? topk : len;
 
-		for(SampleSet sampleSet : trainset.getSampleSets()){
-			net.clearOutputs();//ֵб,Ӱѧϰ
-			for(int i = 0; i < sampleSet.size(); i++)
-				net.forwardProp(sampleSet.getSample(i));
-			
-			rank = MathLib.getRank(sampleSet.getLabels(), false);
-			outputNeuron.updateWeight(topk, rank);
+		double[] expPredict = new double[len];
+		double[] suffixSum = new double[len + 1];
+		for(int l = len - 1; l >= 0; l--){
+			expPredict[l] = Math.exp(predict[rank[l]]);
+			suffixSum[l] = suffixSum[l + 1] + expPredict[l];
 		}
 
-		net.updateWeight();
+		double[] gradient = new double[len];
+		double invSum = 0;
+		for(int l = 0; l < len; l++){
+			if(l < k){
+				invSum += 1/suffixSum[l];
+				gradient[rank[l]] -= 1;
+			}
+			gradient[rank[l]] += expPredict[l] * invSum;
+		}
+		return gradient;
 	}
 
 	/**
 	 * Уģ
 	 */
 	protected double validate(){
-		double perf = 0;
-		Layer outputLayer = net.getLayer(net.layers.size() - 1);
-		ListMLENeuron outputNeuron = (ListMLENeuron)outputLayer.getNeuron(0);
-		
-		for(SampleSet sampleSet : valiset.getSampleSets()){
-			net.clearOutputs();//ֵб,Ӱѧϰ
-			for(int id = 0; id < sampleSet.size(); id++)
-				net.forwardProp(sampleSet.getSample(id));
+		if(valiset == null)//ʶȡ֤ļ
+			return -super.validate();
 
-			perf += valiMetric.measure(sampleSet.getLabelList(), outputNeuron.getOutputList());
-		}
+		double perf = 0;
+		for(SampleSet sampleSet : valiset.getSampleSets())
+			perf += valiMetric.measure(sampleSet.getLabels(), net.forwardProp(sampleSet));
 		return -perf/valiset.size();
 	}
 
 	@Override
 	public void updateModel() {
-		net.updateWeight();
 		bestModel = new Network(net);
 	}
 
 	@Override
 	public void storeModel() {
-		FileManager.writeFile(modelFile, bestModel.toString());
+		FileManager.writeFile(modelFile, bestModel.toString(), false);
 	}
 
 	@Override
 	public Model loadModel(String modelFile) {
-		List<double[]> lines = DataManager.loadDatum(modelFile, "\t");
-		List<List<Double>> weight = new ArrayList<List<Double>>();
-		int sz = lines.size();
-		int nInput = -1;
-		int nOutput = -1;
-		int[] nHidden = new int[sz - 2];
-		for(int i = 0; i < sz; i++){
-			int len = lines.get(i).length;
-			if(i == 0)
-				nInput = len;
-			else if(i == sz - 1)
-				nOutput = len;
-			else
-				nHidden[i - 1] = len;
-
-			List<Double> w = new ArrayList<Double>();
-			for(int j = 0; j < lines.size(); j++)
-				w.add(lines.get(i)[j]);
-			
-			weight.set(i, w);
-		}
-		
-		Network net = new Network(NetUser.ListMLE, false, nInput, nOutput, nHidden);
-		
-		net.netWeights = weight;
-		return net;
+		return Network.load(NetUser.ListMLE, DataManager.loadDatum(modelFile, "\t"));
 	}
 
 	@Override
@@ -1,16 +1,11 @@
 package com.horsehour.ranker.trainer;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import com.horsehour.datum.DataManager;
 import com.horsehour.datum.SampleSet;
 import com.horsehour.metric.CrossEntropy;
 import com.horsehour.model.Model;
-import com.horsehour.neunet.Layer;
 import com.horsehour.neunet.NetUser;
 import com.horsehour.neunet.Network;
-import com.horsehour.neunet.neuron.ListNetNeuron;
 import com.horsehour.util.FileManager;
 
 /**
@@ -21,91 +16,64 @@ import com.horsehour.util.FileManager;
  *  Cao, Zhe and Qin, Tao and Liu, Tie-Yan and Tsai, Ming-Feng and Li, Hang
  * @since 20131216
  */
-public class ListNet extends RankTrainer{
-	public Network net;
+public class ListNet extends NetTrainer{
 	public boolean bias = false;
-	public int[] nHidden;
 
 	public ListNet(){}
 
 	@Override
 	public void init() {
 		net = new Network(NetUser.ListNet, bias, trainset.getDim(), 1, nHidden);
+		plainModel = net;
 		valiMetric = new CrossEntropy();
 	}
 
+	//TODO: How about top k, where k=10, for example?
+	/**
+	 * ʧԸĵĵ,ԤʵTop Oneи֮
+	 */
 	@Override
-	protected void learn() {
-		Layer outputLayer = net.layers.get(net.layers.size() - 1);
-		ListNetNeuron outputNeuron = (ListNetNeuron) outputLayer.getNeuron(0);
-		
-		for(SampleSet sampleSet : trainset.getSampleSets()){
-			net.clearOutputs();//ֵб,Ӱѧϰ
-			for(int id = 0; id < sampleSet.size(); id++)
-				net.forwardProp(sampleSet.getSample(id));
-			outputNeuron.updateWeight(sampleSet);
+	protected double[] calcGradient(int qid, SampleSet sampleSet, double[] predict){
+		int len = predict.length;
+		double[] gradient = new double[len];
+		double desireExpSum = 0, predictExpSum = 0;
+		for(int idx = 0; idx < len; idx++){
+			desireExpSum += Math.exp(sampleSet.getLabel(idx));
+			predictExpSum += Math.exp(predict[idx]);
 		}
 
-		net.updateWeight();
+		for(int idx = 0; idx < len; idx++)
+			gradient[idx] = Math.exp(predict[idx])/predictExpSum
+					- Math.exp(sampleSet.getLabel(idx))/desireExpSum;
+		return gradient;
 	}
 
 	/**
 	 * Уģ(valiMetric)
 	 */
 	protected double validate(){
-		double perf = 0;
-		Layer outputLayer = net.layers.get(net.layers.size() - 1);
-		ListNetNeuron outputNeuron = (ListNetNeuron) outputLayer.getNeuron(0);
-		
-		for(SampleSet sampleSet : valiset.getSampleSets()){
-			net.clearOutputs();//ֵб,Ӱѧϰ
-			for(int i = 0; i < sampleSet.size(); i++)
-				net.forwardProp(sampleSet.getSample(i));
+		if(valiset == null)//ʶȡ֤ļ
+			return -super.validate();
 
-			perf += valiMetric.measure(sampleSet.getLabelList(), outputNeuron.getOutputList());
-		}
+		double perf = 0;
+		for(SampleSet sampleSet : valiset.getSampleSets())
+			perf += valiMetric.measure(sampleSet.getLabels(), net.forwardProp(sampleSet));
 		return -perf/valiset.size();
 	}
 
 	@Override
 	public void updateModel() {
-		net.updateWeight();
 		bestModel = new Network(net);
 	}
 
 	@Override
 	public void storeModel() {
-		FileManager.writeFile(modelFile, bestModel.toString());
+		FileManager.writeFile(modelFile, bestModel.toString(), false);
 	}
 
 	@Override
 	public Model loadModel(String modelFile) {
-		List<double[]> lines = DataManager.loadDatum(modelFile, "\t");
-		List<List<Double>> weight = new ArrayList<List<Double>>();
-		int sz = lines.size();
-		int nInput = -1;
-		int nOutput = -1;
-		int[] nHidden = new int[sz - 2];
-		for(int i = 0; i < sz; i++){
-			int len = lines.get(i).length;
-			if(i == 0)
-				nInput = len;
-			else if(i == sz - 1)
-				nOutput = len;
-			else
-				nHidden[i - 1] = len;
-
-			List<Double> w = new ArrayList<Double>();
-			for(int j = 0; j < lines.size(); j++)
-				w.add(lines.get(i)[j]);
-			
-			weight.set(i, w);
-		}
-		
-		Network net = new Network(NetUser.ListNet, false, nInput, nOutput, nHidden);
-		
-		net.netWeights = weight;
-		return net;
+		return Network.load(NetUser.ListNet, DataManager.loadDatum(modelFile, "\t"));
 	}
 
 	@Override
@@ -0,0 +1,190 @@
+package com.horsehour.ranker.trainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.horsehour.datum.SampleSet;
+import com.horsehour.neunet.NetBuffer;
+import com.horsehour.neunet.Network;
+
+/**
+ * 㷨ѵ:ֻʧԸĵĵ,
+ * NetTrainerǰ򴫲򴫲Ȩֵ
+ * <p>ĬʸȨֵ;batchSize1ʱmini-batchͬ,ڵļnThread߳
+ * ֱݶ,ۼӺͳһ,̵߳ĵ޹;hogwildΪtrueʱ̴߳ͬļ,
+ * ֱӸ¹Ȩֵ</p>
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140328
+ */
+public abstract class NetTrainer extends RankTrainer{
+	public Network net;
+	public int[] nHidden;//زڵĿ
+
+	public int batchSize = 1;//ÿmini-batchļĿ
+	public boolean hogwild = false;//첽
+
+	private NetBuffer[] buffers;//̵߳Ļ
+	private Network bufferNet;
+
+	/**
+	 * ʧԼиĵĵ,ѵʱɶ߳ͬʱ
+	 * @param qid ѵе
+	 * @param sampleset
+	 * @param predict
+	 * @return gradient of each document
+	 */
+	protected abstract double[] calcGradient(int qid, SampleSet sampleset, double[] predict);
+
+	@Override
+	protected void learn() {
+		int m = trainset.size();
+		if(batchSize <= 1 && (!hogwild || nThread <= 1)){
+			for(int i = 0; i < m; i++){
+				SampleSet sampleset = trainset.getSampleSet(i);
+				double[] predict = net.forwardProp(sampleset);
+				net.backwardProp(calcGradient(i, sampleset, predict));
+			}
+			return;
+		}
+
+		int nWorker = Math.max(1, nThread);
+		prepareBuffers(nWorker);
+
+		ExecutorService pool = (nWorker > 1) ? Executors.newFixedThreadPool(nWorker) : null;
+		try {
+			if(hogwild)
+				run(pool, split(0, m, nWorker, false));
+			else
+				for(int from = 0; from < m; from += batchSize){
+					int to = Math.min(m, from + batchSize);
+					List<NetWorker> workers = split(from, to, nWorker, true);
+					run(pool, workers);
+					for(NetWorker worker : workers)//̵߳˳ۼ,֤
+						net.applyGradient(worker.buf);
+				}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		} finally {
+			if(pool != null)
+				pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * ʹthreadCountsе߳Ŀ³ʼѵnEpoch,ÿֺʱ
+	 * ׸߳ĿļٱԼЧ(ٱ߳Ŀ֮)
+	 * @param threadCounts
+	 * @param nEpoch
+	 */
+	public void reportScaling(int[] threadCounts, int nEpoch){
+		int nThreadBak = nThread;
+		double baseTime = 0;
+		for(int k = 0; k < threadCounts.length; k++){
+			nThread = threadCounts[k];
+			init();
+			learn();//warm up
+
+			long start = System.nanoTime();
+			for(int i = 0; i < nEpoch; i++)
+				learn();
+			double sec = (System.nanoTime() - start) / 1e9 / nEpoch;
+
+			if(k == 0)
+				baseTime = sec;
+			double speedup = baseTime / sec;
+			double efficiency = speedup * threadCounts[0] / nThread;
+			System.out.println(name() + "[batch=" + batchSize + (hogwild ? ", hogwild" : "") + "]\t"
+					+ nThread + " threads\t" + sec + " s/epoch\tspeedup " + speedup
+					+ "\tefficiency " + efficiency);
+		}
+		nThread = nThreadBak;
+	}
+
+	/**
+	 * ߳Ŀ仯ʱ·仺
+	 * @param nWorker
+	 */
+	private void prepareBuffers(int nWorker){
+		if(buffers != null && bufferNet == net && buffers.length >= nWorker)
+			return;
+
+		buffers = new NetBuffer[nWorker];
+		for(int t = 0; t < nWorker; t++)
+			buffers[t] = net.newBuffer();
+		bufferNet = net;
+	}
+
+	/**
+	 * [from, to)Χڵļʾָ߳
+	 * @param from
+	 * @param to
+	 * @param nWorker
+	 * @param accumulate
+	 * @return workers
+	 */
+	private List<NetWorker> split(int from, int to, int nWorker, boolean accumulate){
+		int n = Math.min(nWorker, to - from);
+		List<NetWorker> workers = new ArrayList<NetWorker>(n);
+		for(int t = 0; t < n; t++)
+			workers.add(new NetWorker(buffers[t], from + (int) ((long) (to - from) * t / n),
+					from + (int) ((long) (to - from) * (t + 1) / n), accumulate));
+		return workers;
+	}
+
+	/**
+	 * ִȫ,ֻһʱڵǰִ߳
+	 * @param pool
+	 * @param workers
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private void run(ExecutorService pool, List<NetWorker> workers)
+			throws InterruptedException, ExecutionException{
+		if(pool == null || workers.size() == 1){
+			for(NetWorker worker : workers)
+				worker.call();
+			return;
+		}
+
+		List<Future<Object>> futures = new ArrayList<Future<Object>>(workers.size());
+		for(NetWorker worker : workers)
+			futures.add(pool.submit(worker));
+		for(Future<Object> future : futures)
+			future.get();
+	}
+
+	/**
+	 * δ[from, to)Χڵļ,ۻݶȻֱӸȨֵ
+	 */
+	private class NetWorker implements Callable<Object>{
+		private final NetBuffer buf;
+		private final int from, to;
+		private final boolean accumulate;
+
+		NetWorker(NetBuffer buf, int from, int to, boolean accumulate){
+			this.buf = buf;
+			this.from = from;
+			this.to = to;
+			this.accumulate = accumulate;
+		}
+
+		@Override
+		public Object call(){
+			for(int i = from; i < to; i++){
+				SampleSet sampleset = trainset.getSampleSet(i);
+				double[] predict = net.forwardProp(sampleset, buf);
+				net.backwardProp(calcGradient(i, sampleset, predict), buf, accumulate);
+			}
+			return null;
+		}
+	}
+}
@@ -1,18 +1,15 @@
 package com.horsehour.ranker.trainer;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import com.horsehour.datum.DataManager;
-import com.horsehour.datum.Sample;
 import com.horsehour.datum.SampleSet;
 import com.horsehour.metric.CrossEntropy;
 import com.horsehour.model.Model;
-import com.horsehour.neunet.Layer;
 import com.horsehour.neunet.NetUser;
 import com.horsehour.neunet.Network;
-import com.horsehour.neunet.neuron.RankNetNeuron;
 import com.horsehour.util.FileManager;
+import com.horsehour.util.Sorter;
 
 /**
  * RankNet is deployed with neural network to train pairwise instances,
@@ -25,103 +22,86 @@ import com.horsehour.util.FileManager;
  *	using gradient descent. In Proceedings of the 22nd international 
  *  conference on Machine learning, pages 89C96. ACM, 2005.
  */
-public class RankNet extends RankTrainer{
-	public Network net;
-	public int[] nHidden;
-
+public class RankNet extends NetTrainer{
 	private double previousLoss = 0;
 	private double loss = 0;
 
-	private List<int[][]> pairset;
+	private int[][] order;//ʵĵǩ
+	private int[][] level;//صȼorderеʼλ,ĩβΪĵĿ
+	private int[] nPair;//ϵĿ
+	private double[] queryLoss;//ϵƽʧ
 	
 	public RankNet(){}
 
 	@Override
 	public void init() {
 		net = new Network(NetUser.RankNet, false, trainset.getDim(), 1, nHidden);
+		plainModel = net;
 		valiMetric = new CrossEntropy();
+		makePair();
 	}
 
-	//TODO: еĵʱ俪,ֱʹ÷鼯Ч
 	/**
-	 * ѵԼ
+	 * ѵ鼯:ĵصȼ,ߵȼеÿĵе͵ȼеĵ,
+	 * ʽб
 	 */
 	protected void makePair(){
-		pairset = new ArrayList<int[][]>();
 		int m = trainset.size();
+		order = new int[m][];
+		level = new int[m][];
+		nPair = new int[m];
+		queryLoss = new double[m];
 
 		for(int i = 0; i < m; i++){
-			SampleSet sampleset = trainset.getSampleSet(i);
-			List<List<Integer>> cluster = sampleset.group();
-			int nc = cluster.size();
-			if(nc == 1){//ֻһ
-				pairset.add(null);
-				continue;
-			}
-
-			int[] level = new int[nc];
-			for(int k = 0; k < nc; k++)
-				level[k] = sampleset.getLabel(cluster.get(k).get(0));
-
-			int n = sampleset.size();
-			int[][] samplePair = new int[n][];
+			int[] labels = trainset.getSampleSet(i).getLabels();
+			int n = labels.length;
+			double[] base = new double[n];
+			int[] idx = new int[n];
 			for(int j = 0; j < n; j++){
-				int currentLevel = sampleset.getLabel(j);
-				int count = 0;
-				for(int k = 0; k < nc; k++){
-					if(currentLevel > level[k])
-						count += cluster.get(k).size();
-				}
-				
-				samplePair[j] = new int[count];
-				count = 0;
-				for(int k = 0; k < nc; k++){
-					if(currentLevel > level[k]){
-						for(int v : cluster.get(k))
-							samplePair[j][count++] = v; 
-					}
-				}
+				base[j] = labels[j];
+				idx[j] = j;
 			}
-
-			pairset.add(samplePair);
+			Sorter.indexSort(base, idx, n, true);
+
+			int nLevel = 0;
+			int[] start = new int[n + 1];
+			for(int j = 0; j < n; j++)
+				if(j == 0 || labels[idx[j]] != labels[idx[j - 1]])
+					start[nLevel++] = j;
+			start[nLevel] = n;
+
+			order[i] = idx;
+			level[i] = Arrays.copyOf(start, nLevel + 1);
+			for(int g = 0; g < nLevel; g++)
+				nPair[i] += (start[g + 1] - start[g]) * (n - start[g + 1]);
 		}
 	}
 
 	/**
 	 * ѧϰģ
 	 */
-	public void learn(){
+	@Override
+	protected void learn(){
+		super.learn();
+
 		loss = 0;
+		for(int i = 0; i < queryLoss.length; i++)
+			loss += queryLoss[i];
 
-		for(SampleSet sampleSet : trainset.getSampleSets()){
-			net.clearOutputs();
-			Sample sample = null;
-			int[][] samplePair = new int[sampleSet.size()][];
-			
-			float avgLoss = 0;
-			int pairs = 0;
-			for(int id = 0; id < sampleSet.size(); id++){
-				sample = sampleSet.getSample(id);
-				net.forwardProp(sample);
-				pairs += makePair(id, sampleSet, samplePair);
-			}
+		adjustLearningRate();
+	}
 
-			Layer outputLayer = net.layers.get(net.layers.size() - 1);
-			RankNetNeuron outputNeuron = (RankNetNeuron)outputLayer.getNeuron(0);
-			batchBackwardProp(samplePair, outputNeuron);
-			
-			if(pairs > 0){
-				avgLoss = calcLoss(outputNeuron, samplePair);
-				avgLoss /= pairs;
-			}
+	@Override
+	protected double[] calcGradient(int qid, SampleSet sampleset, double[] predict){
+		double[] lambda = new double[predict.length];
 
-			loss += avgLoss;
+		float avgLoss = 0;
+		if(nPair[qid] > 0){
+			avgLoss = (float) calcLambda(predict, order[qid], level[qid], lambda);
+			avgLoss /= nPair[qid];
 		}
-
-		net.updateWeight();
-
-		adjustLearningRate();
-
+		queryLoss[qid] = avgLoss;
+		return lambda;
 	}
 	
 	/**
@@ -137,91 +117,46 @@ public class RankNet extends RankTrainer{
 	}
 
 	/**
-	 * Уģ
+	 * Уģ,û֤ʱʶȡ֤ļ
 	 */
 	protected double validate(){
-		List<Double> predict;
+		if(valiset == null)
+			return super.validate();
 
-		SampleSet sampleset;
-		
-		Layer outputLayer;
-		RankNetNeuron outputNeuron;
-		
 		double perf = 0;
 		int sz = valiset.size();
 		for(int i = 0; i < sz; i++){
-			sampleset = valiset.getSampleSet(i);
-			net.clearOutputs();//ֵÿϵб
-			Sample sample = null;
-			for(int id = 0; id < sampleset.size(); id++){
-				sample = sampleset.getSample(id);
-				net.forwardProp(sample);
-			}
-
-			outputLayer = net.layers.get(net.layers.size() - 1);
-			outputNeuron = (RankNetNeuron)outputLayer.getNeuron(0);
-			predict = outputNeuron.getOutputList();
-			
-			perf += valiMetric.measure(sampleset.getLabelList(), predict);
+			SampleSet sampleset = valiset.getSampleSet(i);
+			perf += valiMetric.measure(sampleset.getLabels(), net.forwardProp(sampleset));
 		}
 		return perf/sz;
 	}
 
 	/**
-	 * ݼе-ض
-	 * @param currentId
-	 * @param sampleset
-	 * @param samplePair
-	 * @return pairs' num
-	 */
-	private int makePair(int currentId, SampleSet sampleset, int[][] samplePair){
-		int count = 0;
-		for(int idx = 0; idx < sampleset.size(); idx++){
-			if(sampleset.getLabel(currentId) > sampleset.getLabel(idx))
-				count++;
-		}
-		
-		samplePair[currentId] = new int[count];
-		count = 0;
-		for(int idx = 0; idx < sampleset.size(); idx++){
-			if(sampleset.getLabel(currentId) > sampleset.getLabel(idx))
-				samplePair[currentId][count++] = idx;
-		}
-		return count;
-	}
-	
-	/**
-	 * ȫѵ򴫲
-	 * @param samplePair
-	 * @param outputNeuron
-	 */
-	private void batchBackwardProp(int[][] samplePair, RankNetNeuron outputNeuron){
-		for(int current = 0; current < samplePair.length; current++){
-			int[] pair = samplePair[current];
-			
-			outputNeuron.calcOutputLocalGradient(current, pair);
-
-			for(int id = net.numLayer - 2; id > 0; id--)
-				net.getLayer(id).calcLocalGradient(current, pair);
-
-			for(int id = net.numLayer - 1; id > 0 ; id--)
-				net.getLayer(id).updateWeight(current, pair);
-		}
-	}
-	
-	/**
-	 * ģԤƫøͬʵƫø,㽻ʧ
-	 * @param outputNeuron
-	 * @param samplePair
+	 * صȼܸĵlambda,ȫϽʧĵ;
+	 * ÿֻһָ,ʧͬʱó
+	 * @param predict
+	 * @param order
+	 * @param level
+	 * @param lambda
 	 * @return cross entropy loss
 	 */
-	private float calcLoss(RankNetNeuron outputNeuron, int[][] samplePair){
-		float loss = 0;
-		for(int current = 0; current < samplePair.length; current++){
-			int[] pair = samplePair[current];
-			for(int idx = 0; idx < pair.length; idx++){
-				loss += Math.log(1 + Math.exp(outputNeuron.getOutputList().get(pair[idx]) -
-						outputNeuron.getOutputList().get(current)));
+	private double calcLambda(double[] predict, int[] order, int[] level, double[] lambda){
+		double loss = 0;
+		int n = order.length;
+		for(int g = 0; g < level.length - 2; g++){
+			for(int a = level[g]; a < level[g + 1]; a++){
+				int current = order[a];
+				double sumProb = 0;
+				for(int b = level[g + 1]; b < n; b++){
+					int pair = order[b];
+					double e = Math.exp(predict[current] - predict[pair]);
+					double prob = -1/(1 + e);//P-1
+					sumProb += prob;
+					lambda[pair] -= prob;
+					loss += Math.log(1 + 1/e);
+				}
+				lambda[current] += sumProb;
 			}
 		}
 		return loss;
@@ -229,43 +164,17 @@ public class RankNet extends RankTrainer{
 
 	@Override
 	public void updateModel() {
-		net.updateWeight();
 		bestModel = new Network(net);
 	}
 
 	@Override
 	public void storeModel() {
-		FileManager.writeFile(modelFile, bestModel.toString());
+		FileManager.writeFile(modelFile, bestModel.toString(), false);
 	}
 
 	@Override
 	public Model loadModel(String modelFile) {
-		List<double[]> lines = DataManager.loadDatum(modelFile, "\t");
-		List<List<Double>> weight = new ArrayList<List<Double>>();
-		int sz = lines.size();
-		int nInput = -1;
-		int nOutput = -1;
-		int[] nHidden = new int[sz - 2];
-		for(int i = 0; i < sz; i++){
-			int len = lines.get(i).length;
-			if(i == 0)
-				nInput = len;
-			else if(i == sz - 1)
-				nOutput = len;
-			else
-				nHidden[i - 1] = len;
-
-			List<Double> w = new ArrayList<Double>();
-			for(int j = 0; j < lines.size(); j++)
-				w.add(lines.get(i)[j]);
-			
-			weight.set(i, w);
-		}
-
-		Network net = new Network(NetUser.RankNet, false, nInput, nOutput, nHidden);
-		
-		net.netWeights = weight;
-		return net;
+		return Network.load(NetUser.RankNet, DataManager.loadDatum(modelFile, "\t"));
 	}
 
 	@Override
@@ -1,11 +1,28 @@
 package com.horsehour.ranker.trainer;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.horsehour.datum.DataSet;
+import com.horsehour.datum.LabelStats;
+import com.horsehour.datum.Pipeline;
+import com.horsehour.datum.QueryIterator;
 import com.horsehour.datum.SampleSet;
+import com.horsehour.filter.L2RLineParser;
+import com.horsehour.filter.LineParserFilter;
+import com.horsehour.math.MathLib;
 import com.horsehour.metric.MAP;
 import com.horsehour.metric.Metric;
+import com.horsehour.model.EnsembleModel;
+import com.horsehour.model.LinearModel;
 import com.horsehour.model.Model;
 
 /**
@@ -17,6 +34,9 @@ import com.horsehour.model.Model;
 public abstract class RankTrainer{
 	public DataSet trainset;
 	public DataSet valiset;
+	public String valiFile;//valisetΪnullʱ,ʶȡļ֤
+	public LineParserFilter valiParser = new L2RLineParser();//valiFile
+	public Pipeline valiPipeline;//valiFileмʵԤ,Ӧѵһ(׼),nullʾ
 
 	public Metric trainMetric;
 	public Metric valiMetric = new MAP();
@@ -26,6 +46,14 @@ public abstract class RankTrainer{
 	
 	public String modelFile;
 	public int nIter = 200;
+	public int nThread = Runtime.getRuntime().availableProcessors();//ܾѵȲмʹõ߳
+	public boolean verbose = false;//ǷܾĽ
+
+	public int valiInterval = 1;//ÿvaliInterval֤һ,һܻ֤
+	public int patience = 0;//patience֤δminDeltaʱǰֹͣ,0ʾǰֹͣ
+	public double minDelta = 0;
+
+	private EnsembleCache valiCache;
 	
 	public Properties prop; 
 
@@ -40,16 +68,31 @@ public abstract class RankTrainer{
 	public void train(){
 		init();
 
+		valiCache = null;
 		double vali = 0;
-		double bestvali = -1;
+		double bestvali = Double.NEGATIVE_INFINITY;//ֵ֤Ϊ,ȡʧ
+		int stall = 0;
 		for(int iter = 0; iter < nIter; iter++){
 			learn();//ѧϰ
+			if((iter + 1) % Math.max(1, valiInterval) != 0 && iter != nIter - 1)
+				continue;
+
 			vali = validate();//֤
+			if(vali > bestvali + minDelta)
+				stall = 0;
+			else
+				stall++;
 
 			if(vali > bestvali){
 				bestvali = vali;
 				updateModel();
 			}
+
+			if(patience > 0 && stall >= patience){
+				System.out.println(name() + ": early stopping at iteration " + (iter + 1)
+						+ ", best validation " + bestvali);
+				break;
+			}
 		}
 		storeModel();
 	}
@@ -71,22 +114,215 @@ public abstract class RankTrainer{
 		int m = dataset.size();
 		SampleSet sampleset;
 
+		double[][] cached = null;
+		if(plainModel instanceof EnsembleModel){//ģֻ¼Ȩֵ仯ĳԱ
+			if(valiCache == null)
+				valiCache = new EnsembleCache();
+			cached = valiCache.predict((EnsembleModel) plainModel, dataset);
+		}
+
 		for(int i = 0; i < m; i++){
 			sampleset = dataset.getSampleSet(i);
-			predict = plainModel.predict(sampleset);
-			perf += metric.measure(sampleset.getLabels(), predict);
+			predict = (cached == null) ? plainModel.predict(sampleset) : cached[i];
+			perf += metric.measure(sampleset.getLabelStats(), predict);
 		}
 
 		return perf/m;
 	}
 
+	/**
+	 * ѡģѵϵperf[i][q]
+	 * <p>ʰ黮,nThread̲߳м,ÿԪֻһд,봮мһ;
+	 * ҪtrainMetricѡģ͵predict̰߳ȫ</p>
+	 * @param candidates
+	 * @return performance matrix
+	 */
+	protected double[][] buildPerfMatrix(List<? extends Model> candidates){
+		int m = trainset.size();
+		int n = candidates.size();
+		double[][] perf = new double[n][m];
+
+		double[] weights = stackWeights(candidates, trainset.getDim());
+		int nBlock = Math.max(1, Math.min(m, nThread * 8));
+		List<PerfBlock> blocks = new ArrayList<PerfBlock>(nBlock);
+		for(int b = 0; b < nBlock; b++)
+			blocks.add(new PerfBlock(candidates, weights, perf, (int) ((long) m * b / nBlock),
+					(int) ((long) m * (b + 1) / nBlock)));
+
+		long start = System.currentTimeMillis();
+		int reported = 0;
+		if(nThread <= 1){
+			for(int b = 0; b < nBlock; b++){
+				blocks.get(b).call();
+				reported = reportProgress(blocks.get(b).to, reported, n, m, start);
+			}
+			return perf;
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(nThread);
+		try {
+			List<Future<Object>> futures = new ArrayList<Future<Object>>(nBlock);
+			for(PerfBlock block : blocks)
+				futures.add(pool.submit(block));
+
+			for(int b = 0; b < nBlock; b++){
+				futures.get(b).get();
+				reported = reportProgress(blocks.get(b).to, reported, n, m, start);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+		return perf;
+	}
+
+	/**
+	 * ѡģ;Ϊģʱ,ȨֵжѵΪndimеľ,ԱԤֵ
+	 * @param candidates
+	 * @param dim
+	 * @return stacked weights,ڷģʱnull
+	 */
+	private static double[] stackWeights(List<? extends Model> candidates, int dim){
+		for(Model model : candidates)
+			if(!(model instanceof LinearModel))
+				return null;
+
+		double[] weights = new double[candidates.size() * dim];
+		for(int i = 0; i < candidates.size(); i++){
+			double[] w = ((LinearModel) candidates.get(i)).getWeight();
+			System.arraycopy(w, 0, weights, i * dim, Math.min(dim, w.length));
+		}
+		return weights;
+	}
+
+	/**
+	 * verboseΪtrueʱ,ɵļÿ10%һν(ʵɱ)ʱ
+	 * @param done ɵļĿ
+	 * @return Ľ(10%)
+	 */
+	private int reportProgress(int done, int reported, int n, int m, long start){
+		int decile = (int) ((long) done * 10 / m);
+		if(verbose && decile > reported)
+			System.out.println("PerfMatrix[" + n + " x " + m + "]: " + done + "/" + m + " queries ("
+					+ (long) done * 100 / m + "%), " + (System.currentTimeMillis() - start)/1000.0
+					+ " s, " + nThread + " threads");
+		return decile;
+	}
+
+	/**
+	 * ȫѡģ[from, to)Χڼϵ
+	 * <p>ԺѡģͰTILEһ,ʵ,õԤֵ</p>
+	 */
+	private class PerfBlock implements Callable<Object>{
+		private static final int TILE = 64;
+
+		private final List<? extends Model> candidates;
+		private final double[] weights;
+		private final double[][] perf;
+		private final int from, to;
+
+		PerfBlock(List<? extends Model> candidates, double[] weights, double[][] perf,
+				int from, int to){
+			this.candidates = candidates;
+			this.weights = weights;
+			this.perf = perf;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public Object call(){
+			if(weights != null)
+				return callBatch();
+
+			for(int qid = from; qid < to; qid++){
+				SampleSet sampleset = trainset.getSampleSet(qid);
+				LabelStats stats = sampleset.getLabelStats();
+				for(int idx = 0; idx < candidates.size(); idx++)
+					perf[idx][qid] = trainMetric.measure(stats, candidates.get(idx).predict(sampleset));
+			}
+			return null;
+		}
+
+		private Object callBatch(){
+			int n = candidates.size();
+			int dim = trainset.getDim();
+			double[] features = new double[0];
+			double[] scores = new double[0];
+
+			for(int qid = from; qid < to; qid++){
+				SampleSet sampleset = trainset.getSampleSet(qid);
+				LabelStats stats = sampleset.getLabelStats();
+				int sz = sampleset.size();
+				if(features.length < sz * dim)
+					features = new double[sz * dim];
+				if(scores.length < TILE * sz)
+					scores = new double[TILE * sz];
+				sampleset.getFeatureMatrix(dim, features);
+
+				double[] predict = new double[sz];
+				for(int start = 0; start < n; start += TILE){
+					int nRow = Math.min(TILE, n - start);
+					MathLib.multiplyTransposed(weights, start * dim, nRow, features, sz, dim, scores);
+					for(int r = 0; r < nRow; r++){
+						System.arraycopy(scores, r * sz, predict, 0, sz);
+						perf[start + r][qid] = trainMetric.measure(stats, predict);
+					}
+				}
+			}
+			return null;
+		}
+	}
+
 	/**
 	 * ģ֤ϵ
 	 * @return ģ
 	 */
 	protected double validate(){
+		if(valiset == null && valiFile != null)
+			return validate(valiFile, valiMetric);
 		return validate(valiset, valiMetric);
 	}
+
+	/**
+	 * ʶȡļģ,ؽݼȫڴ;
+	 * valiParser,valiPipeline(׼)
+	 * @param dataFile
+	 * @param metric
+	 * @return ģ
+	 * @throws IllegalArgumentException ļûм
+	 */
+	protected double validate(String dataFile, Metric metric){
+		Model model = plainModel;
+		if(model instanceof EnsembleModel)
+			model = ((EnsembleModel) model).compile();
+
+		double perf = 0;
+		int m = 0;
+		QueryIterator queries = null;
+		try {
+			queries = new QueryIterator(dataFile, valiParser);
+			Iterator<SampleSet> iter = (valiPipeline == null) ? queries : valiPipeline.apply(queries);
+			while(iter.hasNext()){
+				SampleSet sampleset = iter.next();
+				perf += metric.measure(sampleset.getLabelStats(), model.predict(sampleset));
+				m++;
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		} finally {
+			if(queries != null)
+				queries.close();
+		}
+
+		if(m == 0)
+			throw new IllegalArgumentException("No queries in validation file " + dataFile);
+		return perf/m;
+	}
 	
 	/**
 	 * ģ
@@ -126,7 +126,7 @@ public class WeakEvaluate {
 			for(int qid = 0; qid < mq; qid++){
 				sampleset = dataset.getSampleSet(qid);
 
-				double perf = testMetrics[10].measure(sampleset.getLabels(), weak.predict(sampleset));
+				double perf = testMetrics[10].measure(sampleset.getLabelStats(), weak.predict(sampleset));
 						
 				perfMatrix[i][qid] = perf;
 				
@@ -0,0 +1,41 @@
+package com.horsehour.test;
+
+import com.horsehour.evaluate.CrossValidator;
+import com.horsehour.metric.NDCG;
+import com.horsehour.ranker.trainer.AdaRank;
+import com.horsehour.ranker.trainer.RankTrainer;
+import com.horsehour.util.TickClock;
+
+/**
+ * AdaRank with different train metrics on MQ2007/MQ2008/OHSUMED, 5-fold cross validation
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140330
+ */
+public class Test_CrossValidation {
+	public static void main(String[] args){
+		TickClock.beginTick();
+
+		CrossValidator cv = new CrossValidator();
+		cv.database = "F:/Research/Data/";
+		cv.evalbase = "F:/Research/Experiments/CV/";
+
+		for(int k = 1; k <= 10; k += 3){
+			final int depth = k;
+			cv.addExperiment("nIter=200", new CrossValidator.TrainerFactory(){
+				@Override
+				public RankTrainer create(){
+					AdaRank trainer = new AdaRank();
+					trainer.trainMetric = new NDCG(depth);
+					trainer.valiMetric = new NDCG(depth);
+					trainer.nIter = 200;
+					trainer.patience = 20;
+					return trainer;
+				}
+			});
+		}
+		cv.run(cv.evalbase + "AdaRank.report");
+
+		TickClock.stopTick();
+	}
+}
@@ -0,0 +1,89 @@
+package com.horsehour.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.horsehour.datum.DataManager;
+import com.horsehour.datum.DataSet;
+import com.horsehour.filter.L2RLineParser;
+import com.horsehour.model.EnsembleModel;
+import com.horsehour.model.FeatureModel;
+import com.horsehour.model.LinearModel;
+import com.horsehour.model.Model;
+import com.horsehour.neunet.NetUser;
+import com.horsehour.neunet.Network;
+
+/**
+ * Multi-threaded scoring throughput of model snapshots
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140329
+ */
+public class Test_ModelThroughput {
+	/**
+	 * nThread̹߳ͬһ,ԶȫnRound,ÿֵļĵĿ
+	 * @param model
+	 * @param dataset
+	 * @param nThread
+	 * @param nRound
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	public static void bench(Model model, final DataSet dataset, int nThread, final int nRound)
+			throws InterruptedException, ExecutionException{
+		final Model snapshot = model.snapshot();
+		ExecutorService pool = Executors.newFixedThreadPool(nThread);
+		List<Future<Object>> futures = new ArrayList<Future<Object>>();
+
+		long start = System.nanoTime();
+		for(int t = 0; t < nThread; t++)
+			futures.add(pool.submit(new Callable<Object>(){
+				@Override
+				public Object call(){
+					for(int r = 0; r < nRound; r++)
+						for(int q = 0; q < dataset.size(); q++)
+							snapshot.predict(dataset.getSampleSet(q));
+					return null;
+				}
+			}));
+		for(Future<Object> future : futures)
+			future.get();
+		double sec = (System.nanoTime() - start) / 1e9;
+		pool.shutdown();
+
+		double total = (double) nThread * nRound;
+		System.out.println(model.getClass().getSimpleName() + "\t" + nThread + " threads\t"
+				+ (total * dataset.size() / sec) + " queries/s\t"
+				+ (total * dataset.getNumTotalSample() / sec) + " docs/s");
+	}
+
+	public static void main(String[] args) throws Exception{
+		DataSet dataset = DataManager.loadDataSet("F:/Research/Data/MQ2007/Fold1/test.txt",
+				new L2RLineParser());
+		int dim = dataset.getDim();
+		Random rand = new Random(0);
+
+		double[] w = new double[dim];
+		for(int i = 0; i < dim; i++)
+			w[i] = rand.nextGaussian();
+
+		EnsembleModel ensemble = new EnsembleModel();
+		for(int i = 0; i < 50; i++)
+			ensemble.addMember(new FeatureModel(rand.nextInt(dim)), rand.nextDouble());
+
+		Model[] models = {new LinearModel(w), new FeatureModel(0), ensemble, ensemble.compile(),
+				new Network(NetUser.RankNet, false, dim, 1, 10)};
+		int[] threadCounts = {1, 2, 4, 8};
+		for(Model model : models){
+			bench(model, dataset, 1, 2);//warm up
+			for(int nThread : threadCounts)
+				bench(model, dataset, nThread, 5);
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.horsehour.test;
+
+import com.horsehour.datum.DataManager;
+import com.horsehour.datum.DataSet;
+import com.horsehour.filter.L2RLineParser;
+import com.horsehour.ranker.trainer.ListMLE;
+import com.horsehour.ranker.trainer.ListNet;
+import com.horsehour.ranker.trainer.NetTrainer;
+import com.horsehour.ranker.trainer.RankNet;
+
+/**
+ * Scaling efficiency of data-parallel training of RankNet, ListNet and ListMLE
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140328
+ */
+public class Test_NetScaling {
+	public static void main(String[] args){
+		DataSet trainset = DataManager.loadDataSet("F:/Research/Data/MQ2007/Fold1/train.txt",
+				new L2RLineParser());
+		int[] threadCounts = {1, 2, 4, 8};
+		int nEpoch = 5;
+
+		NetTrainer[] trainers = {new RankNet(), new ListNet(), new ListMLE()};
+		for(NetTrainer trainer : trainers){
+			trainer.trainset = trainset;
+			trainer.nHidden = new int[]{10};
+
+			trainer.batchSize = 64;//ͬmini-batch
+			trainer.hogwild = false;
+			trainer.reportScaling(threadCounts, nEpoch);
+
+			trainer.batchSize = 1;//첽
+			trainer.hogwild = true;
+			trainer.reportScaling(threadCounts, nEpoch);
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.horsehour.test;
+
+import java.io.File;
+
+import com.horsehour.datum.DataManager;
+import com.horsehour.datum.DataSet;
+import com.horsehour.filter.L2RByteParser;
+import com.horsehour.filter.L2RLineParser;
+import com.horsehour.filter.LineParserFilter;
+
+/**
+ * Throughput benchmark of L2RLineParser and L2RByteParser
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140322
+ */
+public class Test_ParserSpeed {
+	/**
+	 * ʹָظļ,ƽ
+	 * @param src
+	 * @param lineParser
+	 * @param nRound
+	 */
+	public static void bench(String src, LineParserFilter lineParser, int nRound){
+		double mb = new File(src).length() / (1024.0 * 1024.0);
+		DataSet dataset = null;
+
+		long start = System.nanoTime();
+		for(int i = 0; i < nRound; i++)
+			dataset = DataManager.loadDataSet(src, lineParser);
+		double sec = (System.nanoTime() - start) / 1e9 / nRound;
+
+		System.out.println(lineParser.name() + ":\t" + dataset.getNumTotalSample() + " lines\t"
+				+ sec + " s\t" + (mb / sec) + " MB/s\t" + (dataset.getNumTotalSample() / sec) + " lines/s");
+	}
+
+	public static void main(String[] args){
+		String src = "F:/Research/Data/MQ2007/Fold1/train.txt";
+		int nRound = 5;
+
+		bench(src, new L2RLineParser(), 1);//warm up
+		bench(src, new L2RByteParser(), 1);
+
+		bench(src, new L2RLineParser(), nRound);
+		bench(src, new L2RByteParser(), nRound);
+	}
+}
@@ -11,6 +11,7 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -255,6 +256,43 @@ public class FileManager {
 	
 	private static final int BUF_SIZE = 51200;
 	
+	/**
+	 * ļ,gzipļں̨߳нѹ,÷ֱӶȡѹ
+	 * @param src
+	 * @return input stream
+	 * @throws IOException
+	 */
+	public static InputStream openInput(String src) throws IOException{
+		return openInput(src, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param src
+	 * @param nThread ѹֿgzipļ߳
+	 * @return input stream
+	 * @throws IOException
+	 */
+	public static InputStream openInput(String src, int nThread) throws IOException{
+		if(isGzip(src))
+			return new GzipPipeInputStream(src, nThread);
+		return new FileInputStream(src);
+	}
+
+	/**
+	 * ļͷmagicжǷΪgzipļ
+	 * @param src
+	 * @return true if src is gzip compressed
+	 * @throws IOException
+	 */
+	public static boolean isGzip(String src) throws IOException{
+		InputStream in = new FileInputStream(src);
+		try {
+			return in.read() == 0x1F && in.read() == 0x8B;
+		} finally {
+			in.close();
+		}
+	}
+
 	/**
 	 * ѹļ
 	 * @param gzFile ѹļ
@@ -0,0 +1,323 @@
+package com.horsehour.util;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * ں̨߳нѹgzipļ,ȡݵͬʱѹݿ
+ * <p>ļɴBCչֶ(¼ѹĳ,bgzipɵļ)ĶgzipԱʱ,
+ * ֻ̨߳зֳԱ,nThread̲߳нѹ,ѹԭ˳;
+ * gzipļɺ̨߳˳ѹгȹ̶,ڴռļС޹ء
+ * ̨߳̾Ϊػ߳,ǰȡʱӦcloseͷ߳</p>
+ * @author Chunheng Jiang
+ * @version 1.0
+ * @since 20140331
+ */
+public class GzipPipeInputStream extends InputStream{
+	private static final int CHUNK = 1 << 18;
+	private static final int DEPTH = 16;//г
+
+	private static final int FHCRC = 2, FEXTRA = 4, FNAME = 8, FCOMMENT = 16;
+
+	private static final Future<byte[]> END = done(new byte[0]);
+
+	//δ꼴ֹ˳
+	private static final ThreadFactory DAEMON = new ThreadFactory(){
+		@Override
+		public Thread newThread(Runnable r){
+			Thread t = new Thread(r, "gzip-inflater");
+			t.setDaemon(true);
+			return t;
+		}
+	};
+
+	private final BlockingQueue<Future<byte[]>> queue = new ArrayBlockingQueue<Future<byte[]>>(DEPTH);
+	private final ExecutorService pool;
+	private final Thread reader;
+
+	private byte[] chunk = new byte[0];
+	private int pos = 0;
+	private boolean eof = false;
+
+	/**
+	 * @param src gzipļ
+	 * @param nThread ѹֿgzipļ߳
+	 * @throws IOException
+	 */
+	public GzipPipeInputStream(String src, int nThread) throws IOException{
+		final InputStream in = new BufferedInputStream(new FileInputStream(src), CHUNK);
+		in.mark(CHUNK);
+		final boolean blocked = getBlockSize(in) > 0;
+		in.reset();
+
+		pool = blocked ? Executors.newFixedThreadPool(Math.max(1, nThread), DAEMON) : null;
+		reader = new Thread(new Runnable(){
+			@Override
+			public void run(){
+				try {
+					if(blocked)
+						splitBlocks(in);
+					else
+						inflate(in);
+					queue.put(END);
+				} catch (InterruptedException e) {
+					return;//ѹر
+				} catch (IOException e) {
+					try {
+						queue.put(failed(e));
+					} catch (InterruptedException ie) {
+						return;
+					}
+				} finally {
+					if(pool != null)
+						pool.shutdown();//ύĳԱѹ
+					try {
+						in.close();
+					} catch (IOException e) {
+						e.printStackTrace();
+					}
+				}
+			}
+		}, "gzip-reader");
+		reader.setDaemon(true);
+		reader.start();
+	}
+
+	/**
+	 * ˳ѹ,ÿCHUNKֽ
+	 * @param in
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	private void inflate(InputStream in) throws IOException, InterruptedException{
+		InputStream gz = new GZIPInputStream(in, CHUNK);
+		while(true){
+			byte[] buf = new byte[CHUNK];
+			int len = readFully(gz, buf, 0, CHUNK);
+			if(len > 0)
+				queue.put(done((len < CHUNK) ? Arrays.copyOf(buf, len) : buf));
+			if(len < CHUNK)
+				return;
+		}
+	}
+
+	/**
+	 * ζgzipԱ,ύ̳߳ؽѹ
+	 * @param in
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	private void splitBlocks(InputStream in) throws IOException, InterruptedException{
+		while(true){
+			in.mark(CHUNK);
+			int first = in.read();
+			if(first < 0)
+				return;
+			in.reset();
+
+			int size = getBlockSize(in);
+			if(size <= 0)
+				throw new IOException("gzip member without block size.");
+			in.reset();
+
+			final byte[] block = new byte[size];
+			if(readFully(in, block, 0, size) < size)
+				throw new EOFException("Truncated gzip block.");
+
+			queue.put(pool.submit(new Callable<byte[]>(){
+				@Override
+				public byte[] call() throws IOException{
+					return inflateBlock(block);
+				}
+			}));
+		}
+	}
+
+	/**
+	 * ȡgzipԱͷBCչֶ
+	 * @param in
+	 * @return Աֽ,ûBCֶʱ-1
+	 * @throws IOException
+	 */
+	private static int getBlockSize(InputStream in) throws IOException{
+		byte[] head = new byte[12];
+		if(readFully(in, head, 0, 12) < 12 || (head[0] & 0xFF) != 0x1F || (head[1] & 0xFF) != 0x8B)
+			return -1;
+		if((head[3] & FEXTRA) == 0)
+			return -1;
+
+		int xlen = u16(head, 10);
+		byte[] extra = new byte[xlen];
+		if(readFully(in, extra, 0, xlen) < xlen)
+			return -1;
+		for(int i = 0; i + 4 <= xlen; ){
+			int slen = u16(extra, i + 2);
+			if(extra[i] == 'B' && extra[i + 1] == 'C' && slen == 2)
+				return u16(extra, i + 4) + 1;
+			i += 4 + slen;
+		}
+		return -1;
+	}
+
+	/**
+	 * ѹһgzipԱ,УCRC볤
+	 * @param block
+	 * @return ѹ
+	 * @throws IOException
+	 */
+	private static byte[] inflateBlock(byte[] block) throws IOException{
+		int flg = block[3];
+		int off = 10;
+		if((flg & FEXTRA) != 0)
+			off += 2 + u16(block, 10);
+		if((flg & FNAME) != 0)
+			while(block[off++] != 0);
+		if((flg & FCOMMENT) != 0)
+			while(block[off++] != 0);
+		if((flg & FHCRC) != 0)
+			off += 2;
+
+		int n = block.length;
+		int crc = u16(block, n - 8) | (u16(block, n - 6) << 16);
+		int isize = u16(block, n - 4) | (u16(block, n - 2) << 16);
+
+		byte[] out = new byte[isize];
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(block, off, n - 8 - off);
+			int len = 0;
+			while(len < isize){
+				int k = inflater.inflate(out, len, isize - len);
+				if(k == 0 && (inflater.finished() || inflater.needsInput()))
+					break;
+				len += k;
+			}
+			if(len != isize)
+				throw new IOException("Corrupt gzip block.");
+		} catch (DataFormatException e) {
+			throw new IOException(e);
+		} finally {
+			inflater.end();
+		}
+
+		CRC32 check = new CRC32();
+		check.update(out);
+		if((int) check.getValue() != crc)
+			throw new IOException("CRC mismatch in gzip block.");
+		return out;
+	}
+
+	@Override
+	public int read() throws IOException{
+		while(pos >= chunk.length){
+			if(eof)
+				return -1;
+			next();
+		}
+		return chunk[pos++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException{
+		if(len == 0)
+			return 0;
+		while(pos >= chunk.length){
+			if(eof)
+				return -1;
+			next();
+		}
+		int n = Math.min(len, chunk.length - pos);
+		System.arraycopy(chunk, pos, b, off, n);
+		pos += n;
+		return n;
+	}
+
+	/**
+	 * ȡһѹ
+	 * @throws IOException
+	 */
+	private void next() throws IOException{
+		Future<byte[]> future;
+		try {
+			future = queue.take();
+			if(future == END){
+				eof = true;
+				return;
+			}
+			chunk = future.get();
+			pos = 0;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			eof = true;
+			if(e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+			throw new IOException(e.getCause());
+		}
+	}
+
+	@Override
+	public void close(){
+		eof = true;
+		reader.interrupt();
+		if(pool != null)
+			pool.shutdownNow();
+		queue.clear();
+	}
+
+	private static int readFully(InputStream in, byte[] buf, int off, int len) throws IOException{
+		int n = 0;
+		while(n < len){
+			int k = in.read(buf, off + n, len - n);
+			if(k < 0)
+				break;
+			n += k;
+		}
+		return n;
+	}
+
+	private static int u16(byte[] b, int i){
+		return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8;
+	}
+
+	private static Future<byte[]> done(final byte[] data){
+		FutureTask<byte[]> task = new FutureTask<byte[]>(new Callable<byte[]>(){
+			@Override
+			public byte[] call(){
+				return data;
+			}
+		});
+		task.run();
+		return task;
+	}
+
+	private static Future<byte[]> failed(final IOException e){
+		FutureTask<byte[]> task = new FutureTask<byte[]>(new Callable<byte[]>(){
+			@Override
+			public byte[] call() throws IOException{
+				throw e;
+			}
+		});
+		task.run();
+		return task;
+	}
+}
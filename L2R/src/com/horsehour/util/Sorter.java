@@ -53,4 +53,130 @@ public class Sorter {
 		}
 		return judge;
 	}
+
+	/**
+	 * baseidxǰnԪ,װҲڴ;baseͬʱ,
+	 * ʱǰ,linkedSortĽһ
+	 * @param base
+	 * @param idx
+	 * @param n
+	 * @param des
+	 */
+	public static void indexSort(double[] base, int[] idx, int n, boolean des){
+		indexSort(base, idx, 0, n - 1, des);
+	}
+
+	private static void indexSort(double[] base, int[] idx, int lo, int hi, boolean des){
+		while(hi - lo > 16){
+			int mid = (lo + hi) >>> 1;
+			if(precede(base, idx[mid], idx[lo], des))
+				swap(idx, lo, mid);
+			if(precede(base, idx[hi], idx[lo], des))
+				swap(idx, lo, hi);
+			if(precede(base, idx[hi], idx[mid], des))
+				swap(idx, mid, hi);
+
+			int pivot = idx[mid];
+			int i = lo, j = hi;
+			while(i <= j){
+				while(precede(base, idx[i], pivot, des))
+					i++;
+				while(precede(base, pivot, idx[j], des))
+					j--;
+				if(i <= j)
+					swap(idx, i++, j--);
+			}
+
+			//ݹ鴦϶̵,ջ
+			if(j - lo < hi - i){
+				indexSort(base, idx, lo, j, des);
+				lo = i;
+			}else{
+				indexSort(base, idx, i, hi, des);
+				hi = j;
+			}
+		}
+
+		insertionSort(base, idx, lo, hi, des);
+	}
+
+	/**
+	 * :ֻǰkλ˳idxǰkλ,λõ˳ȷ;
+	 * ÿѡ񻮷ֳǰkԪ,ٶ,ӶO(n + k log k),
+	 * ǰkλĽindexSortȫͬ
+	 * @param base
+	 * @param idx
+	 * @param n
+	 * @param k
+	 * @param des
+	 */
+	public static void partialSort(double[] base, int[] idx, int n, int k, boolean des){
+		if(k >= n){
+			indexSort(base, idx, 0, n - 1, des);
+			return;
+		}
+		if(k <= 0)
+			return;
+
+		int lo = 0, hi = n - 1;
+		while(hi - lo > 16){
+			int mid = (lo + hi) >>> 1;
+			if(precede(base, idx[mid], idx[lo], des))
+				swap(idx, lo, mid);
+			if(precede(base, idx[hi], idx[lo], des))
+				swap(idx, lo, hi);
+			if(precede(base, idx[hi], idx[mid], des))
+				swap(idx, mid, hi);
+
+			int pivot = idx[mid];
+			int i = lo, j = hi;
+			while(i <= j){
+				while(precede(base, idx[i], pivot, des))
+					i++;
+				while(precede(base, pivot, idx[j], des))
+					j--;
+				if(i <= j)
+					swap(idx, i++, j--);
+			}
+
+			//ֻڰkλڼ
+			if(k - 1 <= j)
+				hi = j;
+			else if(k - 1 >= i)
+				lo = i;
+			else
+				break;
+		}
+		if(hi - lo <= 16)
+			insertionSort(base, idx, lo, hi, des);
+		indexSort(base, idx, 0, k - 1, des);
+	}
+
+	private static void insertionSort(double[] base, int[] idx, int lo, int hi, boolean des){
+		for(int i = lo + 1; i <= hi; i++){
+			int id = idx[i];
+			int k = i - 1;
+			while(k >= lo && precede(base, id, idx[k], des)){
+				idx[k + 1] = idx[k];
+				k--;
+			}
+			idx[k + 1] = id;
+		}
+	}
+
+	/**
+	 * @return aǷb֮ǰ
+	 */
+	private static boolean precede(double[] base, int a, int b, boolean des){
+		int c = Double.compare(base[a], base[b]);
+		if(c == 0)
+			c = (a < b) ? -1 : ((a == b) ? 0 : 1);
+		return des ? c > 0 : c < 0;
+	}
+
+	private static void swap(int[] idx, int i, int j){
+		int tmp = idx[i];
+		idx[i] = idx[j];
+		idx[j] = tmp;
+	}
 }